@@ -0,0 +1,480 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton that finds every occurrence of many patterns in a
+ * single pass over a text, in O(n + matches) time no matter how many
+ * patterns there are. Running {@link StringSearching#kmp} once per pattern
+ * would instead cost O(patterns * n).
+ *
+ * The automaton is stored in flat primitive arrays with one entry per state
+ * (trie node) rather than in node objects:
+ *
+ *  - the children of a state are a contiguous, sorted slice of edgeLabel and
+ *    edgeTarget, found through edgeStart, and are looked up by binary search
+ *  - the root, which is visited most often, also has a dense 256 entry row
+ *    for Latin-1 chars
+ *  - fail, output and dictLink hold the failure link, the pattern ending at
+ *    the state and the nearest state on the failure chain with a pattern
+ *
+ * The trie is built breadth first from the sorted patterns, which makes the
+ * edge slices come out contiguous and sorted without any intermediate
+ * structure. Since the number of states is known from the sorted patterns
+ * before anything is allocated, the exact footprint is checked against the
+ * memory budget up front. The tables take 22 bytes per state plus 8 per
+ * pattern, so 100k patterns of 10 chars need about 23 MB at most. Building
+ * temporarily needs another 12 bytes per state.
+ *
+ * Instances are immutable and can be shared freely between threads.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class AhoCorasick {
+
+    /**
+     * Receives the matches found by {@link #search(CharSequence,
+     * MatchHandler)}.
+     */
+    @FunctionalInterface
+    public interface MatchHandler {
+
+        /**
+         * Called for each match.
+         *
+         * @param patternId the index of the matched pattern in the list the
+         * automaton was built from
+         * @param offset the starting index of the match in the text
+         * @return true to continue searching, false to stop
+         */
+        boolean onMatch(int patternId, int offset);
+    }
+
+    /**
+     * A pattern occurrence in a text.
+     */
+    public static final class Match {
+        private final int patternId;
+        private final int offset;
+
+        /**
+         * Creates a match.
+         *
+         * @param patternId the index of the matched pattern
+         * @param offset the starting index of the match in the text
+         */
+        Match(int patternId, int offset) {
+            this.patternId = patternId;
+            this.offset = offset;
+        }
+
+        /**
+         * Returns the index of the matched pattern in the list the automaton
+         * was built from.
+         *
+         * @return the pattern id
+         */
+        public int getPatternId() {
+            return patternId;
+        }
+
+        /**
+         * Returns the starting index of the match in the text.
+         *
+         * @return the offset
+         */
+        public int getOffset() {
+            return offset;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Match)) {
+                return false;
+            }
+            Match m = (Match) o;
+            return patternId == m.patternId && offset == m.offset;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * patternId + offset;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + patternId + ", " + offset + ")";
+        }
+    }
+
+    /**
+     * Number of entries in the dense transition row of the root.
+     */
+    private static final int DENSE_SIZE = 256;
+
+    /**
+     * Bytes used per state by edgeStart, fail, output, dictLink and the
+     * state's incoming edge.
+     */
+    private static final int BYTES_PER_STATE = 4 + 4 + 4 + 4 + 2 + 4;
+
+    /**
+     * Bytes used per pattern by patternLength and samePattern.
+     */
+    private static final int BYTES_PER_PATTERN = 4 + 4;
+
+    private final int[] edgeStart;
+    private final char[] edgeLabel;
+    private final int[] edgeTarget;
+    private final int[] rootNext;
+    private final int[] fail;
+    private final int[] output;
+    private final int[] dictLink;
+    private final int[] patternLength;
+    private final int[] samePattern;
+
+    /**
+     * Builds the automaton with no memory limit.
+     *
+     * @throws IllegalArgumentException if the list is null or contains a
+     * null or empty pattern
+     * @param patterns the patterns to search for, identified by their index
+     */
+    public AhoCorasick(List<? extends CharSequence> patterns) {
+        this(patterns, Long.MAX_VALUE);
+    }
+
+    /**
+     * Builds the automaton, refusing to allocate more than memoryBudget
+     * bytes for its tables.
+     *
+     * Have a worst case running time of:
+     *  O(L log P), for P patterns of total length L
+     *
+     * @throws IllegalArgumentException if the list is null or contains a
+     * null or empty pattern
+     * @throws IllegalArgumentException if the tables would exceed the budget
+     * @param patterns the patterns to search for, identified by their index
+     * @param memoryBudget the most bytes the tables may take
+     */
+    public AhoCorasick(List<? extends CharSequence> patterns,
+                       long memoryBudget) {
+        if (patterns == null) {
+            throw new IllegalArgumentException("Input patterns are null,"
+                    + " please enter a valid input next time.");
+        }
+        int count = patterns.size();
+        String[] strings = new String[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            CharSequence p = patterns.get(i);
+            if (p == null || p.length() == 0) {
+                throw new IllegalArgumentException("Pattern " + i + " is null"
+                        + " or empty, please enter valid inputs next time.");
+            }
+            strings[i] = asString(p);
+            order[i] = i;
+        }
+        Sorting.bufferedMergeSort(order,
+                Comparator.comparing((Integer i) -> strings[i]));
+
+        // Every char of a sorted pattern past its common prefix with the
+        // previous pattern starts a new trie node
+        long states = 1;
+        for (int i = 0; i < count; i++) {
+            String p = strings[order[i]];
+            int lcp = i == 0 ? 0 : commonPrefix(strings[order[i - 1]], p);
+            states += p.length() - lcp;
+        }
+        long footprint = footprint(states, count);
+        if (states > Integer.MAX_VALUE - 1 || footprint > memoryBudget) {
+            throw new IllegalArgumentException("The automaton needs "
+                    + footprint + " bytes, which exceeds the memory budget of "
+                    + memoryBudget + " bytes.");
+        }
+
+        int n = (int) states;
+        edgeStart = new int[n + 1];
+        edgeLabel = new char[n - 1];
+        edgeTarget = new int[n - 1];
+        rootNext = new int[DENSE_SIZE];
+        fail = new int[n];
+        output = new int[n];
+        dictLink = new int[n];
+        patternLength = new int[count];
+        samePattern = new int[count];
+        for (int i = 0; i < count; i++) {
+            patternLength[i] = strings[i].length();
+        }
+        buildTrie(strings, order);
+        buildLinks();
+    }
+
+    /**
+     * Copies a pattern into a String, reading the chars one by one rather
+     * than calling toString, which not every CharSequence implements as its
+     * contents.
+     *
+     * @param pattern the pattern
+     * @return the pattern as a String
+     */
+    private static String asString(CharSequence pattern) {
+        if (pattern instanceof String) {
+            return (String) pattern;
+        }
+        StringBuilder sb = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            sb.append(pattern.charAt(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the length of the longest common prefix of two strings.
+     *
+     * @param a the first string
+     * @param b the second string
+     * @return the common prefix length
+     */
+    private static int commonPrefix(String a, String b) {
+        int limit = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < limit && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the bytes taken by the tables of an automaton.
+     *
+     * @param states the number of states
+     * @param patterns the number of patterns
+     * @return the footprint in bytes
+     */
+    private static long footprint(long states, long patterns) {
+        return states * BYTES_PER_STATE + patterns * BYTES_PER_PATTERN
+                + 4L * DENSE_SIZE + 4;
+    }
+
+    /**
+     * Creates the states breadth first. Each state stands for the prefix of
+     * length depth shared by a contiguous range of the sorted patterns.
+     * Patterns equal to the prefix sort first in the range and end at the
+     * state; the rest are grouped by their next char into the children,
+     * which are therefore created in label order.
+     *
+     * @param strings the patterns
+     * @param order the pattern ids sorted by pattern
+     */
+    private void buildTrie(String[] strings, Integer[] order) {
+        int n = fail.length;
+        int[] lo = new int[n];
+        int[] hi = new int[n];
+        int[] depth = new int[n];
+        hi[0] = order.length;
+        Arrays.fill(output, -1);
+        int created = 1;
+        int edges = 0;
+        for (int s = 0; s < n; s++) {
+            edgeStart[s] = edges;
+            int i = lo[s];
+            int d = depth[s];
+            int last = -1;
+            while (i < hi[s] && strings[order[i]].length() == d) {
+                int id = order[i++];
+                if (last < 0) {
+                    output[s] = id;
+                } else {
+                    samePattern[last] = id;
+                }
+                samePattern[id] = -1;
+                last = id;
+            }
+            while (i < hi[s]) {
+                char c = strings[order[i]].charAt(d);
+                int start = i;
+                while (i < hi[s] && strings[order[i]].charAt(d) == c) {
+                    i++;
+                }
+                int child = created++;
+                lo[child] = start;
+                hi[child] = i;
+                depth[child] = d + 1;
+                edgeLabel[edges] = c;
+                edgeTarget[edges++] = child;
+            }
+        }
+        edgeStart[n] = edges;
+    }
+
+    /**
+     * Computes the failure and dictionary links in breadth first order, so
+     * the links of every shallower state are known when they are needed.
+     */
+    private void buildLinks() {
+        Arrays.fill(rootNext, -1);
+        for (int e = edgeStart[0]; e < edgeStart[1]; e++) {
+            if (edgeLabel[e] < DENSE_SIZE) {
+                rootNext[edgeLabel[e]] = edgeTarget[e];
+            }
+        }
+        dictLink[0] = -1;
+        for (int s = 0; s < fail.length; s++) {
+            for (int e = edgeStart[s]; e < edgeStart[s + 1]; e++) {
+                int t = edgeTarget[e];
+                int f = 0;
+                if (s != 0) {
+                    f = fail[s];
+                    int next;
+                    while ((next = child(f, edgeLabel[e])) < 0 && f != 0) {
+                        f = fail[f];
+                    }
+                    f = Math.max(next, 0);
+                }
+                fail[t] = f;
+                dictLink[t] = output[f] >= 0 ? f : dictLink[f];
+            }
+        }
+    }
+
+    /**
+     * Follows the trie edge labeled c out of state s.
+     *
+     * @param s the state
+     * @param c the char
+     * @return the child state, or -1 if there is none
+     */
+    private int child(int s, char c) {
+        if (s == 0 && c < DENSE_SIZE) {
+            return rootNext[c];
+        }
+        int lo = edgeStart[s];
+        int hi = edgeStart[s + 1] - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char label = edgeLabel[mid];
+            if (label < c) {
+                lo = mid + 1;
+            } else if (label > c) {
+                hi = mid - 1;
+            } else {
+                return edgeTarget[mid];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the state reached from s on reading c, following failure links
+     * on mismatch.
+     *
+     * @param s the current state
+     * @param c the char read
+     * @return the next state
+     */
+    int next(int s, char c) {
+        int t;
+        while ((t = child(s, c)) < 0 && s != 0) {
+            s = fail[s];
+        }
+        return Math.max(t, 0);
+    }
+
+    /**
+     * Reports every pattern that ends at the given state.
+     *
+     * @param s the state
+     * @param end the index of the last char read
+     * @param handler receives the matches
+     * @return false if the handler asked to stop
+     */
+    boolean report(int s, int end, MatchHandler handler) {
+        if (output[s] < 0) {
+            s = dictLink[s];
+        }
+        while (s >= 0) {
+            for (int id = output[s]; id >= 0; id = samePattern[id]) {
+                if (!handler.onMatch(id, end - patternLength[id] + 1)) {
+                    return false;
+                }
+            }
+            s = dictLink[s];
+        }
+        return true;
+    }
+
+    /**
+     * Finds every occurrence of every pattern in the text, in one pass.
+     * Matches are reported in order of their end index, and longer patterns
+     * first among matches that end at the same index.
+     *
+     * It should be:
+     *  thread safe
+     *
+     * Have a worst case running time of:
+     *  O(n + matches)
+     *
+     * @throws IllegalArgumentException if text or handler is null
+     * @param text the body of text to search
+     * @param handler receives the matches, and may stop the search
+     */
+    public void search(CharSequence text, MatchHandler handler) {
+        if (text == null || handler == null) {
+            throw new IllegalArgumentException("Input text or handler is"
+                    + " null, please enter valid inputs next time.");
+        }
+        int s = 0;
+        for (int i = 0; i < text.length(); i++) {
+            s = next(s, text.charAt(i));
+            if ((output[s] >= 0 || dictLink[s] >= 0)
+                    && !report(s, i, handler)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Finds every occurrence of every pattern in the text.
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the body of text to search
+     * @return the matches, in the order described by
+     * {@link #search(CharSequence, MatchHandler)}
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        search(text, (id, offset) -> matches.add(new Match(id, offset)));
+        return matches;
+    }
+
+    /**
+     * Returns the number of patterns.
+     *
+     * @return the number of patterns
+     */
+    public int patternCount() {
+        return patternLength.length;
+    }
+
+    /**
+     * Returns the number of states, including the root.
+     *
+     * @return the number of states
+     */
+    public int stateCount() {
+        return fail.length;
+    }
+
+    /**
+     * Returns the bytes taken by the automaton's tables, which is what the
+     * memory budget is checked against.
+     *
+     * @return the footprint in bytes
+     */
+    public long memoryFootprint() {
+        return footprint(fail.length, patternLength.length);
+    }
+}
@@ -0,0 +1,448 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Approximate string searching with bit-parallel algorithms, which find
+ * every place a pattern occurs in a text with at most k errors.
+ *
+ *  - {@link #hamming} counts substituted chars only (k mismatches), using
+ *    Bitap (shift-and) with one state word per allowed error
+ *  - {@link #editDistance} also allows inserted and deleted chars, using
+ *    Myers' bit-vector algorithm
+ *
+ * Both keep one bit per pattern char and process a whole column of the
+ * dynamic programming table with a few word operations per text char.
+ * Patterns of up to 64 chars fit in a single long, which makes the search
+ * about as fast as an exact one; longer patterns are split into 64 bit
+ * blocks, with carries passed from one block to the next.
+ *
+ * Matches are reported like {@link StringSearching#kmp} reports them, as a
+ * List of Integers, except that each entry is the index of the last char of
+ * a match, since with insertions and deletions the start is ambiguous. The
+ * best distance of each match can be collected in a second list.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class ApproximateSearch {
+
+    /**
+     * Number of pattern chars handled per word.
+     */
+    private static final int WORD = Long.SIZE;
+
+    /**
+     * Prevents instantiation, all methods are static.
+     */
+    private ApproximateSearch() {
+    }
+
+    /**
+     * Finds every window of the text that differs from the pattern in at
+     * most k chars.
+     *
+     * Have a worst case running time of:
+     *  O(k n ceil(m / 64))
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0,
+     * text is null, or k is negative
+     * @param pattern the pattern you are searching for
+     * @param text the body of text where you search for the pattern
+     * @param k the largest number of mismatches allowed
+     * @return list containing the ending index for each match found, in
+     * ascending order
+     */
+    public static List<Integer> hamming(CharSequence pattern,
+                                        CharSequence text, int k) {
+        return hamming(pattern, text, k, null);
+    }
+
+    /**
+     * Finds every window of the text that differs from the pattern in at
+     * most k chars, and collects the number of mismatches of each.
+     *
+     * Have a worst case running time of:
+     *  O(k n ceil(m / 64))
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0,
+     * text is null, or k is negative
+     * @param pattern the pattern you are searching for
+     * @param text the body of text where you search for the pattern
+     * @param k the largest number of mismatches allowed
+     * @param distances if not null, receives the number of mismatches of
+     * each match, in the same order as the returned list
+     * @return list containing the ending index for each match found, in
+     * ascending order
+     */
+    public static List<Integer> hamming(CharSequence pattern,
+                                        CharSequence text, int k,
+                                        List<Integer> distances) {
+        checkInputs(pattern, text, k);
+        List<Integer> matches = new ArrayList<>();
+        CharMasks masks = new CharMasks(pattern);
+        k = Math.min(k, pattern.length());
+        if (masks.words == 1) {
+            hammingSingle(masks, pattern.length(), text, k, matches,
+                    distances);
+        } else {
+            hammingBlocks(masks, pattern.length(), text, k, matches,
+                    distances);
+        }
+        return matches;
+    }
+
+    /**
+     * Finds every place where a substring of the text is within edit
+     * distance k of the pattern, counting substituted, inserted and deleted
+     * chars.
+     *
+     * Have a worst case running time of:
+     *  O(n ceil(m / 64))
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0,
+     * text is null, or k is negative
+     * @param pattern the pattern you are searching for
+     * @param text the body of text where you search for the pattern
+     * @param k the largest edit distance allowed
+     * @return list containing the ending index for each match found, in
+     * ascending order
+     */
+    public static List<Integer> editDistance(CharSequence pattern,
+                                             CharSequence text, int k) {
+        return editDistance(pattern, text, k, null);
+    }
+
+    /**
+     * Finds every place where a substring of the text is within edit
+     * distance k of the pattern, and collects the smallest edit distance of
+     * a substring ending there.
+     *
+     * Have a worst case running time of:
+     *  O(n ceil(m / 64))
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0,
+     * text is null, or k is negative
+     * @param pattern the pattern you are searching for
+     * @param text the body of text where you search for the pattern
+     * @param k the largest edit distance allowed
+     * @param distances if not null, receives the edit distance of each
+     * match, in the same order as the returned list
+     * @return list containing the ending index for each match found, in
+     * ascending order
+     */
+    public static List<Integer> editDistance(CharSequence pattern,
+                                             CharSequence text, int k,
+                                             List<Integer> distances) {
+        checkInputs(pattern, text, k);
+        List<Integer> matches = new ArrayList<>();
+        CharMasks masks = new CharMasks(pattern);
+        if (masks.words == 1) {
+            myersSingle(masks, pattern.length(), text, k, matches,
+                    distances);
+        } else {
+            myersBlocks(masks, pattern.length(), text, k, matches,
+                    distances);
+        }
+        return matches;
+    }
+
+    /**
+     * Rejects invalid inputs.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0,
+     * text is null, or k is negative
+     * @param pattern the pattern
+     * @param text the text
+     * @param k the error limit
+     */
+    private static void checkInputs(CharSequence pattern, CharSequence text,
+                                    int k) {
+        if (pattern == null || pattern.length() == 0 || text == null
+                || k < 0) {
+            throw new IllegalArgumentException("Input pattern or text is null"
+                    + " or k is negative, please enter valid inputs next"
+                    + " time.");
+        }
+    }
+
+    /**
+     * Records a match.
+     *
+     * @param end the index of the last char of the match
+     * @param distance the distance of the match
+     * @param matches the list of match ends
+     * @param distances the list of distances, or null
+     */
+    private static void report(int end, int distance, List<Integer> matches,
+                               List<Integer> distances) {
+        matches.add(end);
+        if (distances != null) {
+            distances.add(distance);
+        }
+    }
+
+    /**
+     * Bitap for patterns of at most 64 chars. Bit i of state[d] is set when
+     * the last i + 1 text chars match the first i + 1 pattern chars with at
+     * most d mismatches.
+     *
+     * @param masks the pattern's char masks
+     * @param m the pattern length
+     * @param text the text
+     * @param k the largest number of mismatches
+     * @param matches receives the match ends
+     * @param distances receives the distances, if not null
+     */
+    private static void hammingSingle(CharMasks masks, int m,
+                                      CharSequence text, int k,
+                                      List<Integer> matches,
+                                      List<Integer> distances) {
+        long[] state = new long[k + 1];
+        long found = 1L << (m - 1);
+        for (int j = 0; j < text.length(); j++) {
+            long eq = masks.mask(text.charAt(j), 0);
+            long previous = state[0];
+            state[0] = ((previous << 1) | 1) & eq;
+            int best = (state[0] & found) != 0 ? 0 : -1;
+            for (int d = 1; d <= k; d++) {
+                long shifted = (state[d] << 1) | 1;
+                long substituted = (previous << 1) | 1;
+                previous = state[d];
+                state[d] = (shifted & eq) | substituted;
+                if (best < 0 && (state[d] & found) != 0) {
+                    best = d;
+                }
+            }
+            if (best >= 0) {
+                report(j, best, matches, distances);
+            }
+        }
+    }
+
+    /**
+     * Bitap for patterns longer than 64 chars, with each state split into
+     * blocks of 64 pattern chars. Shifting a state moves the top bit of each
+     * block into the bottom bit of the next one.
+     *
+     * @param masks the pattern's char masks
+     * @param m the pattern length
+     * @param text the text
+     * @param k the largest number of mismatches
+     * @param matches receives the match ends
+     * @param distances receives the distances, if not null
+     */
+    private static void hammingBlocks(CharMasks masks, int m,
+                                      CharSequence text, int k,
+                                      List<Integer> matches,
+                                      List<Integer> distances) {
+        int words = masks.words;
+        long[][] state = new long[k + 1][words];
+        long[] previous = new long[words];
+        long[] shifted = new long[words];
+        int last = words - 1;
+        long found = 1L << ((m - 1) % WORD);
+        for (int j = 0; j < text.length(); j++) {
+            char c = text.charAt(j);
+            int best = -1;
+            for (int d = 0; d <= k; d++) {
+                shiftInOne(state[d], shifted);
+                for (int w = 0; w < words; w++) {
+                    long next = shifted[w] & masks.mask(c, w);
+                    if (d > 0) {
+                        next |= previous[w];
+                    }
+                    previous[w] = shifted[w];
+                    state[d][w] = next;
+                }
+                // previous now holds this level's old state, shifted, which
+                // is the substitution input of the next level
+                if (best < 0 && (state[d][last] & found) != 0) {
+                    best = d;
+                }
+            }
+            if (best >= 0) {
+                report(j, best, matches, distances);
+            }
+        }
+    }
+
+    /**
+     * Computes (state &lt;&lt; 1) | 1 over a multi-block state.
+     *
+     * @param state the blocks of the state, lowest first
+     * @param out receives the shifted blocks
+     */
+    private static void shiftInOne(long[] state, long[] out) {
+        long carry = 1;
+        for (int w = 0; w < state.length; w++) {
+            out[w] = (state[w] << 1) | carry;
+            carry = state[w] >>> (WORD - 1);
+        }
+    }
+
+    /**
+     * Myers' algorithm for patterns of at most 64 chars. Pv and Mv mark the
+     * rows where the current column of the edit distance table goes up or
+     * down by one from the row above, and score is the value in the last
+     * row: the smallest edit distance of a substring ending at j. The top
+     * row is all zeros, so a match may start anywhere.
+     *
+     * @param masks the pattern's char masks
+     * @param m the pattern length
+     * @param text the text
+     * @param k the largest edit distance
+     * @param matches receives the match ends
+     * @param distances receives the distances, if not null
+     */
+    private static void myersSingle(CharMasks masks, int m,
+                                    CharSequence text, int k,
+                                    List<Integer> matches,
+                                    List<Integer> distances) {
+        long pv = -1L;
+        long mv = 0;
+        int score = m;
+        long high = 1L << (m - 1);
+        for (int j = 0; j < text.length(); j++) {
+            long eq = masks.mask(text.charAt(j), 0);
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & high) != 0) {
+                score++;
+            } else if ((mh & high) != 0) {
+                score--;
+            }
+            ph <<= 1;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+            if (score <= k) {
+                report(j, score, matches, distances);
+            }
+        }
+    }
+
+    /**
+     * Myers' algorithm for patterns longer than 64 chars, with Hyyro's
+     * block decomposition. Each block takes the horizontal delta leaving
+     * the block above it (+1, 0 or -1) as input in place of the carry of
+     * the addition and the shifted-in bits. The score is read at the bit of
+     * the last block that stands for the last pattern char; the unused
+     * bits above it only affect rows below the pattern.
+     *
+     * @param masks the pattern's char masks
+     * @param m the pattern length
+     * @param text the text
+     * @param k the largest edit distance
+     * @param matches receives the match ends
+     * @param distances receives the distances, if not null
+     */
+    private static void myersBlocks(CharMasks masks, int m,
+                                    CharSequence text, int k,
+                                    List<Integer> matches,
+                                    List<Integer> distances) {
+        int words = masks.words;
+        long[] pv = new long[words];
+        long[] mv = new long[words];
+        Arrays.fill(pv, -1L);
+        int score = m;
+        int lastBit = (m - 1) % WORD;
+        for (int j = 0; j < text.length(); j++) {
+            char c = text.charAt(j);
+            int hin = 0;
+            for (int w = 0; w < words; w++) {
+                long eq = masks.mask(c, w);
+                long hinNegative = hin < 0 ? 1 : 0;
+                long xv = eq | mv[w];
+                eq |= hinNegative;
+                long xh = (((eq & pv[w]) + pv[w]) ^ pv[w]) | eq;
+                long ph = mv[w] | ~(xh | pv[w]);
+                long mh = pv[w] & xh;
+                int bit = w == words - 1 ? lastBit : WORD - 1;
+                int hout = (int) ((ph >>> bit) & 1) - (int) ((mh >>> bit) & 1);
+                ph = (ph << 1) | (hin > 0 ? 1 : 0);
+                mh = (mh << 1) | hinNegative;
+                pv[w] = mh | ~(xv | ph);
+                mv[w] = ph & xv;
+                hin = hout;
+            }
+            score += hin;
+            if (score <= k) {
+                report(j, score, matches, distances);
+            }
+        }
+    }
+
+    /**
+     * The match masks of a pattern: bit i of block w of the mask of char c
+     * is set when pattern[64 w + i] == c. Latin-1 chars are looked up in a
+     * dense table and wider chars by binary search among the wide chars of
+     * the pattern.
+     */
+    private static final class CharMasks {
+
+        /**
+         * Number of chars in the dense table.
+         */
+        private static final int DENSE_SIZE = 256;
+
+        private final int words;
+        private final long[] dense;
+        private final char[] wideChars;
+        private final long[] wideMasks;
+
+        /**
+         * Builds the masks of a pattern.
+         *
+         * @param pattern the pattern
+         */
+        CharMasks(CharSequence pattern) {
+            int m = pattern.length();
+            words = (m + WORD - 1) / WORD;
+            dense = new long[DENSE_SIZE * words];
+            char[] wide = new char[m];
+            int count = 0;
+            for (int i = 0; i < m; i++) {
+                char c = pattern.charAt(i);
+                if (c < DENSE_SIZE) {
+                    dense[c * words + i / WORD] |= 1L << (i % WORD);
+                } else {
+                    wide[count++] = c;
+                }
+            }
+            Arrays.sort(wide, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (i == 0 || wide[i] != wide[i - 1]) {
+                    wide[distinct++] = wide[i];
+                }
+            }
+            wideChars = Arrays.copyOf(wide, distinct);
+            wideMasks = new long[distinct * words];
+            for (int i = 0; i < m; i++) {
+                char c = pattern.charAt(i);
+                if (c >= DENSE_SIZE) {
+                    int index = Arrays.binarySearch(wideChars, c);
+                    wideMasks[index * words + i / WORD] |= 1L << (i % WORD);
+                }
+            }
+        }
+
+        /**
+         * Returns one block of the mask of a char.
+         *
+         * @param c the char
+         * @param w the block index
+         * @return the block of the mask
+         */
+        long mask(char c, int w) {
+            if (c < DENSE_SIZE) {
+                return dense[c * words + w];
+            }
+            int index = Arrays.binarySearch(wideChars, c);
+            return index >= 0 ? wideMasks[index * words + w] : 0;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * A pattern compiled once for Boyer-Moore searching, so that any number of
+ * texts can be searched without rebuilding the tables.
+ *
+ * The bad character rule uses a flat int[] last occurrence table instead of
+ * a Map, so a mismatch costs one array read with no boxing or hashing:
+ *
+ *  - chars below 256 (Latin-1) index a dense 256 entry table directly
+ *  - wider chars are looked up by binary search in a sorted array holding
+ *    only the distinct wide chars of the pattern
+ *
+ * The good suffix rule is applied as well, and every shift is the larger of
+ * the two rules. This keeps the search from crawling forward one index at a
+ * time on repetitive text, where the bad character rule alone is weak.
+ *
+ * Instances are immutable and can be shared freely between threads.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class BoyerMoorePattern extends CompiledPattern {
+
+    /**
+     * Number of entries in the dense part of the last occurrence table.
+     */
+    private static final int DENSE_SIZE = 256;
+
+    private final int[] denseLast;
+    private final char[] wideChars;
+    private final int[] wideLast;
+    private final int[] goodSuffix;
+
+    /**
+     * Compiles the pattern.
+     *
+     * Have a worst case running time of:
+     *  O(m log m)
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     */
+    public BoyerMoorePattern(CharSequence pattern) {
+        super(pattern);
+        int m = this.pattern.length;
+
+        denseLast = new int[DENSE_SIZE];
+        Arrays.fill(denseLast, -1);
+        int wide = 0;
+        for (int i = 0; i < m; i++) {
+            char c = this.pattern[i];
+            if (c < DENSE_SIZE) {
+                denseLast[c] = i;
+            } else {
+                wide++;
+            }
+        }
+
+        // Sort the wide chars, then keep the last index of each distinct one
+        long[] packed = new long[wide];
+        wide = 0;
+        for (int i = 0; i < m; i++) {
+            char c = this.pattern[i];
+            if (c >= DENSE_SIZE) {
+                packed[wide++] = ((long) c << 32) | i;
+            }
+        }
+        Arrays.sort(packed);
+        int distinct = 0;
+        for (int i = 0; i < wide; i++) {
+            if (i + 1 == wide || packed[i + 1] >>> 32 != packed[i] >>> 32) {
+                packed[distinct++] = packed[i];
+            }
+        }
+        wideChars = new char[distinct];
+        wideLast = new int[distinct];
+        for (int i = 0; i < distinct; i++) {
+            wideChars[i] = (char) (packed[i] >>> 32);
+            wideLast[i] = (int) packed[i];
+        }
+
+        goodSuffix = buildGoodSuffixTable(this.pattern);
+    }
+
+    /**
+     * Builds the good suffix shift table. Entry j is how far the pattern may
+     * move when pattern[j + 1..m - 1] matched and pattern[j] did not: the
+     * distance to the rightmost other occurrence of the matched suffix that
+     * is preceded by a different char, or else to the longest prefix of the
+     * pattern that is also a suffix of the matched part.
+     *
+     * @param pattern the pattern
+     * @return the good suffix table
+     */
+    private static int[] buildGoodSuffixTable(char[] pattern) {
+        int m = pattern.length;
+
+        // suffix[i] is the length of the longest substring ending at i that
+        // is also a suffix of the pattern
+        int[] suffix = new int[m];
+        suffix[m - 1] = m;
+        int g = m - 1;
+        int f = m - 1;
+        for (int i = m - 2; i >= 0; i--) {
+            if (i > g && suffix[i + m - 1 - f] < i - g) {
+                suffix[i] = suffix[i + m - 1 - f];
+            } else {
+                if (i < g) {
+                    g = i;
+                }
+                f = i;
+                while (g >= 0 && pattern[g] == pattern[g + m - 1 - f]) {
+                    g--;
+                }
+                suffix[i] = f - g;
+            }
+        }
+
+        int[] shift = new int[m];
+        Arrays.fill(shift, m);
+        int j = 0;
+        for (int i = m - 1; i >= 0; i--) {
+            if (suffix[i] == i + 1) {
+                for (; j < m - 1 - i; j++) {
+                    if (shift[j] == m) {
+                        shift[j] = m - 1 - i;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < m - 1; i++) {
+            shift[m - 1 - suffix[i]] = m - 1 - i;
+        }
+        return shift;
+    }
+
+    /**
+     * Returns the last index of c in the pattern.
+     *
+     * @param c the char to look up
+     * @return the last index of c in the pattern, or -1 if it does not occur
+     */
+    private int last(char c) {
+        if (c < DENSE_SIZE) {
+            return denseLast[c];
+        }
+        int i = Arrays.binarySearch(wideChars, c);
+        return i >= 0 ? wideLast[i] : -1;
+    }
+
+    /**
+     * Scans the text, comparing the pattern from right to left and shifting
+     * by the larger of the bad character and good suffix rules.
+     *
+     * Have a worst case running time of:
+     *  O(mn)
+     *
+     * @param text the body of text to search
+     * @param from the first index a match may start at
+     * @param onMatch receives the starting index of each match
+     * @return true if the whole text was scanned
+     */
+    @Override
+    boolean scan(CharSequence text, int from, IntPredicate onMatch) {
+        int m = pattern.length;
+        int n = text.length();
+        int i = from;
+        while (i <= n - m) {
+            int j = m - 1;
+            char y = text.charAt(i + j);
+            while (pattern[j] == y) {
+                if (j == 0) {
+                    break;
+                }
+                j--;
+                y = text.charAt(i + j);
+            }
+            if (j == 0 && pattern[0] == y) {
+                if (!onMatch.test(i)) {
+                    return false;
+                }
+                i += goodSuffix[0];
+            } else {
+                i += Math.max(goodSuffix[j], j - last(y));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans the text like {@link #scan(CharSequence, int, IntPredicate)},
+     * recording its work.
+     *
+     * Have a worst case running time of:
+     *  O(mn)
+     *
+     * @param text the body of text to search
+     * @param from the first index a match may start at
+     * @param onMatch receives the starting index of each match
+     * @param metrics receives the work done
+     * @return true if the whole text was scanned
+     */
+    @Override
+    boolean scan(CharSequence text, int from, IntPredicate onMatch,
+                 SearchMetrics metrics) {
+        int m = pattern.length;
+        int n = text.length();
+        int i = from;
+        while (i <= n - m) {
+            int j = m - 1;
+            char y = text.charAt(i + j);
+            while (pattern[j] == y) {
+                if (j == 0) {
+                    break;
+                }
+                j--;
+                y = text.charAt(i + j);
+            }
+            metrics.compared(m - j);
+            int shift;
+            if (j == 0 && pattern[0] == y) {
+                if (!onMatch.test(i)) {
+                    return false;
+                }
+                shift = goodSuffix[0];
+            } else {
+                shift = Math.max(goodSuffix[j], j - last(y));
+            }
+            metrics.shifted(shift);
+            i += shift;
+        }
+        return true;
+    }
+
+    @Override
+    String algorithm() {
+        return "boyerMoore";
+    }
+}
@@ -0,0 +1,250 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.IntPredicate;
+
+/**
+ * Exact search over raw bytes, such as ASCII or UTF-8 text, without going
+ * through CharSequence.charAt for every char.
+ *
+ * The search tests eight candidate positions at once with SWAR (SIMD within
+ * a register) arithmetic on longs. For the positions i to i + 7 it loads
+ * the eight bytes starting at i and the eight bytes starting at i + m - 1,
+ * and marks the positions where the first byte matches the pattern's first
+ * byte and the last byte matches its last byte. Only marked positions are
+ * compared in full, and in most text the two byte filter marks very few.
+ * A UTF-8 pattern's bytes can be searched for directly: a UTF-8 match is
+ * always a match of the encoded bytes.
+ *
+ * The scalar search applies the same filter one position at a time and
+ * returns identical results. It is used for the final positions that are
+ * too close to the end for a full word load, and for everything when the
+ * system property {@code ByteSearch.swar} is set to false.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class ByteSearch {
+
+    /**
+     * Whether the SWAR search is used.
+     */
+    static final boolean SWAR = !"false".equals(
+            System.getProperty("ByteSearch.swar"));
+
+    /**
+     * Reads eight bytes of a ByteBuffer as one little endian long, at an
+     * absolute index. Works for heap, direct and mapped buffers.
+     */
+    private static final VarHandle LONGS = MethodHandles
+            .byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long LOW_SEVEN = 0x7F7F7F7F7F7F7F7FL;
+
+    /**
+     * Prevents instantiation, all methods are static.
+     */
+    private ByteSearch() {
+    }
+
+    /**
+     * Finds the first occurrence of the pattern in the text.
+     *
+     * @throws IllegalArgumentException if the text is null, or the pattern
+     * is null or of length 0
+     * @param text the bytes to search
+     * @param pattern the bytes to search for
+     * @return the index of the first match, or -1 if there is none
+     */
+    public static int indexOf(byte[] text, byte[] pattern) {
+        checkInputs(text, pattern);
+        return indexOf(ByteBuffer.wrap(text), pattern);
+    }
+
+    /**
+     * Finds the first occurrence of the pattern between the position and
+     * the limit of the buffer. The buffer's position is not changed.
+     *
+     * @throws IllegalArgumentException if the text is null, or the pattern
+     * is null or of length 0
+     * @param text the bytes to search
+     * @param pattern the bytes to search for
+     * @return the absolute index in the buffer of the first match, or -1 if
+     * there is none
+     */
+    public static int indexOf(ByteBuffer text, byte[] pattern) {
+        checkInputs(text, pattern);
+        int[] first = {-1};
+        scan(text, pattern, i -> {
+            first[0] = i;
+            return false;
+        });
+        return first[0];
+    }
+
+    /**
+     * Finds every occurrence of the pattern in the text, including
+     * overlapping ones.
+     *
+     * @throws IllegalArgumentException if the text is null, or the pattern
+     * is null or of length 0
+     * @param text the bytes to search
+     * @param pattern the bytes to search for
+     * @return the starting index for each match found, in ascending order
+     */
+    public static MatchList findAll(byte[] text, byte[] pattern) {
+        checkInputs(text, pattern);
+        return findAll(ByteBuffer.wrap(text), pattern);
+    }
+
+    /**
+     * Finds every occurrence of the pattern between the position and the
+     * limit of the buffer, including overlapping ones. The buffer's
+     * position is not changed.
+     *
+     * @throws IllegalArgumentException if the text is null, or the pattern
+     * is null or of length 0
+     * @param text the bytes to search
+     * @param pattern the bytes to search for
+     * @return the absolute index in the buffer of each match found, in
+     * ascending order
+     */
+    public static MatchList findAll(ByteBuffer text, byte[] pattern) {
+        checkInputs(text, pattern);
+        MatchList matches = new MatchList();
+        scan(text, pattern, i -> {
+            matches.add(i);
+            return true;
+        });
+        return matches;
+    }
+
+    /**
+     * Rejects invalid inputs.
+     *
+     * @throws IllegalArgumentException if the text is null, or the pattern
+     * is null or of length 0
+     * @param text the bytes to search
+     * @param pattern the bytes to search for
+     */
+    private static void checkInputs(Object text, byte[] pattern) {
+        if (text == null || pattern == null || pattern.length == 0) {
+            throw new IllegalArgumentException("Input pattern or text is null"
+                    + ", please enter valid inputs next time.");
+        }
+    }
+
+    /**
+     * Reports every match in [position, limit) until onMatch returns false.
+     *
+     * @param text the bytes to search
+     * @param pattern the bytes to search for
+     * @param onMatch receives the absolute index of each match
+     */
+    static void scan(ByteBuffer text, byte[] pattern, IntPredicate onMatch) {
+        int from = text.position();
+        if (SWAR) {
+            from = swarScan(text, pattern, from, onMatch);
+        }
+        if (from >= 0) {
+            scalarScan(text, pattern, from, onMatch);
+        }
+    }
+
+    /**
+     * Scans eight candidate positions per step, as long as both word loads
+     * stay inside the limit.
+     *
+     * Have a worst case running time of:
+     *  O(mn), expected O(n / 8) on text where the first and last pattern
+     *  bytes are not both common
+     *
+     * @param text the bytes to search
+     * @param pattern the bytes to search for
+     * @param from the first candidate position
+     * @param onMatch receives the absolute index of each match
+     * @return the first position left for the scalar scan, or -1 if onMatch
+     * stopped the search
+     */
+    static int swarScan(ByteBuffer text, byte[] pattern, int from,
+                        IntPredicate onMatch) {
+        int m = pattern.length;
+        long first = (pattern[0] & 0xFFL) * ONES;
+        long last = (pattern[m - 1] & 0xFFL) * ONES;
+        int end = text.limit() - (m - 1) - Long.BYTES;
+        int i = from;
+        for (; i <= end; i += Long.BYTES) {
+            long head = (long) LONGS.get(text, i);
+            long tail = (long) LONGS.get(text, i + m - 1);
+            long candidates = zeroBytes(head ^ first) & zeroBytes(tail ^ last);
+            while (candidates != 0) {
+                int pos = i + (Long.numberOfTrailingZeros(candidates) >>> 3);
+                if (middleMatches(text, pattern, pos) && !onMatch.test(pos)) {
+                    return -1;
+                }
+                candidates &= candidates - 1;
+            }
+        }
+        return i;
+    }
+
+    /**
+     * Marks the zero bytes of a word, exactly: the high bit of each byte of
+     * the result is set if and only if that byte of v is zero, and all other
+     * bits are clear.
+     *
+     * @param v the word
+     * @return the mask of zero bytes
+     */
+    private static long zeroBytes(long v) {
+        long t = (v & LOW_SEVEN) + LOW_SEVEN;
+        return ~(t | v | LOW_SEVEN);
+    }
+
+    /**
+     * Tests candidate positions one at a time.
+     *
+     * Have a worst case running time of:
+     *  O(mn)
+     *
+     * @param text the bytes to search
+     * @param pattern the bytes to search for
+     * @param from the first candidate position
+     * @param onMatch receives the absolute index of each match
+     */
+    static void scalarScan(ByteBuffer text, byte[] pattern, int from,
+                           IntPredicate onMatch) {
+        int m = pattern.length;
+        byte first = pattern[0];
+        byte last = pattern[m - 1];
+        int end = text.limit() - m;
+        for (int i = from; i <= end; i++) {
+            if (text.get(i) == first && text.get(i + m - 1) == last
+                    && middleMatches(text, pattern, i)
+                    && !onMatch.test(i)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compares the pattern bytes between its first and last byte with the
+     * text at one position.
+     *
+     * @param text the bytes to search
+     * @param pattern the bytes to search for
+     * @param pos the candidate position
+     * @return true if the middle bytes match
+     */
+    private static boolean middleMatches(ByteBuffer text, byte[] pattern,
+                                         int pos) {
+        for (int j = 1; j < pattern.length - 1; j++) {
+            if (text.get(pos + j) != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,291 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * A search pattern that has been preprocessed once so it can be searched for
+ * in any number of texts. The tables built from the pattern are never
+ * modified after construction, so one compiled pattern can be used by many
+ * threads at the same time without locking.
+ *
+ * Patterns are compiled with one of the factory methods, each of which picks
+ * a search algorithm:
+ *
+ *  - {@link #kmp(CharSequence)} reads every text char exactly once, which
+ *    suits small alphabets and repetitive text
+ *  - {@link #boyerMoore(CharSequence)} skips ahead on mismatches, which suits
+ *    long patterns over large alphabets
+ *  - {@link #rabinKarp(CharSequence)} compares rolling hashes
+ *  - {@link #indexOf(CharSequence)} jumps between occurrences of the first
+ *    char, which suits patterns of one or a few chars
+ *  - {@link #adaptive(CharSequence)} picks one of the above from the shape
+ *    of the pattern, see {@link SearchSelector}
+ *
+ * Results can be taken in the cheapest form for the caller: the first match
+ * only ({@link #find(CharSequence)}, which stops scanning there), a count,
+ * a callback per match, an unboxed {@link MatchList}, or a List.
+ *
+ * To reuse compiled patterns across calls, see {@link PatternCache}.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public abstract class CompiledPattern {
+
+    /**
+     * The chars of the pattern.
+     */
+    final char[] pattern;
+
+    /**
+     * Copies the pattern for a subclass.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     */
+    CompiledPattern(CharSequence pattern) {
+        if (pattern == null || pattern.length() == 0) {
+            throw new IllegalArgumentException("Input pattern is null or"
+                    + " empty, please enter a valid input next time.");
+        }
+        this.pattern = new char[pattern.length()];
+        for (int i = 0; i < this.pattern.length; i++) {
+            this.pattern[i] = pattern.charAt(i);
+        }
+    }
+
+    /**
+     * Compiles the pattern for Knuth-Morris-Pratt searching.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     * @return the compiled pattern
+     */
+    public static CompiledPattern kmp(CharSequence pattern) {
+        return new KmpPattern(pattern);
+    }
+
+    /**
+     * Compiles the pattern for Boyer-Moore searching.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     * @return the compiled pattern
+     */
+    public static CompiledPattern boyerMoore(CharSequence pattern) {
+        return new BoyerMoorePattern(pattern);
+    }
+
+    /**
+     * Compiles the pattern for Rabin-Karp searching.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     * @return the compiled pattern
+     */
+    public static CompiledPattern rabinKarp(CharSequence pattern) {
+        return new RabinKarpPattern(pattern);
+    }
+
+    /**
+     * Compiles the pattern for a memchr-style scan for its first char,
+     * which suits patterns of one or a few chars.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     * @return the compiled pattern
+     */
+    public static CompiledPattern indexOf(CharSequence pattern) {
+        return new IndexOfPattern(pattern);
+    }
+
+    /**
+     * Compiles the pattern with the algorithm that the selector of
+     * {@link StringSearching#getSelector()} picks for its shape.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     * @return the compiled pattern
+     */
+    public static CompiledPattern adaptive(CharSequence pattern) {
+        return StringSearching.getSelector().compile(pattern);
+    }
+
+    /**
+     * Reports every occurrence of the pattern in text that starts at or
+     * after from, in ascending order, until onMatch returns false.
+     *
+     * Implementations must only use local state, so that concurrent scans
+     * do not interfere.
+     *
+     * @param text the body of text to search, not null
+     * @param from the first index a match may start at, at least 0
+     * @param onMatch receives the starting index of each match and returns
+     * true to continue the scan
+     * @return true if the whole text was scanned, false if onMatch stopped it
+     */
+    abstract boolean scan(CharSequence text, int from, IntPredicate onMatch);
+
+    /**
+     * Works like {@link #scan(CharSequence, int, IntPredicate)} and also
+     * records the comparisons, shifts and spurious hash hits of the scan in
+     * metrics.
+     *
+     * This is a separate copy of the search loop, so that the counters cost
+     * nothing at all when metrics are off. The two must find the same
+     * matches.
+     *
+     * @param text the body of text to search, not null
+     * @param from the first index a match may start at, at least 0
+     * @param onMatch receives the starting index of each match and returns
+     * true to continue the scan
+     * @param metrics receives the work done, not null
+     * @return true if the whole text was scanned, false if onMatch stopped it
+     */
+    abstract boolean scan(CharSequence text, int from, IntPredicate onMatch,
+                          SearchMetrics metrics);
+
+    /**
+     * Returns the name of the search algorithm, as reported in
+     * {@link SearchMetrics#getAlgorithm()}.
+     *
+     * @return the algorithm name, e.g. "kmp"
+     */
+    abstract String algorithm();
+
+    /**
+     * Returns the length of the pattern.
+     *
+     * @return the length of the pattern
+     */
+    public final int length() {
+        return pattern.length;
+    }
+
+    /**
+     * Finds the first occurrence of the pattern in the text.
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the body of text where you search for the pattern
+     * @return the starting index of the first match, or -1 if there is none
+     */
+    public int find(CharSequence text) {
+        return find(text, 0);
+    }
+
+    /**
+     * Finds the first occurrence of the pattern in the text that starts at
+     * or after from. A negative from is treated as 0.
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the body of text where you search for the pattern
+     * @param from the first index a match may start at
+     * @return the starting index of the first match, or -1 if there is none
+     */
+    public int find(CharSequence text, int from) {
+        checkText(text);
+        int[] first = {-1};
+        scan(text, Math.max(from, 0), i -> {
+            first[0] = i;
+            return false;
+        });
+        return first[0];
+    }
+
+    /**
+     * Finds every occurrence of the pattern in the text, including
+     * overlapping ones.
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the body of text where you search for the pattern
+     * @return list containing the starting index for each match found, in
+     * ascending order
+     */
+    public List<Integer> findAll(CharSequence text) {
+        checkText(text);
+        List<Integer> matches = new ArrayList<>();
+        scan(text, 0, matches::add);
+        return matches;
+    }
+
+    /**
+     * Finds every occurrence of the pattern in the text and stores the
+     * offsets unboxed. Prefer this to findAll when there may be many
+     * matches.
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the body of text where you search for the pattern
+     * @return the starting index for each match found, in ascending order
+     */
+    public MatchList matches(CharSequence text) {
+        checkText(text);
+        MatchList matches = new MatchList();
+        scan(text, 0, i -> {
+            matches.add(i);
+            return true;
+        });
+        return matches;
+    }
+
+    /**
+     * Counts the occurrences of the pattern in the text, without storing
+     * them.
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the body of text where you search for the pattern
+     * @return the number of matches
+     */
+    public int count(CharSequence text) {
+        checkText(text);
+        int[] count = new int[1];
+        scan(text, 0, i -> {
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    /**
+     * Passes the starting index of each occurrence of the pattern in the
+     * text to a callback, in ascending order, without storing them.
+     *
+     * @throws IllegalArgumentException if text or onMatch is null
+     * @param text the body of text where you search for the pattern
+     * @param onMatch receives the starting index of each match
+     */
+    public void forEach(CharSequence text, IntConsumer onMatch) {
+        checkText(text);
+        if (onMatch == null) {
+            throw new IllegalArgumentException("Input callback is null,"
+                    + " please enter a valid input next time.");
+        }
+        scan(text, 0, i -> {
+            onMatch.accept(i);
+            return true;
+        });
+    }
+
+    /**
+     * Rejects a null text.
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the text to check
+     */
+    static void checkText(CharSequence text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Input text is null, please"
+                    + " enter a valid input next time.");
+        }
+    }
+
+    /**
+     * Returns the pattern.
+     *
+     * @return the pattern as a String
+     */
+    @Override
+    public String toString() {
+        return new String(pattern);
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A CharSequence that counts how many times its chars are read. Works like
+ * {@link SearchableString} but wraps any CharSequence and is thread-safe:
+ * the count is a LongAdder, so many threads can read the same text, e.g.
+ * during a {@link ParallelSearch}, without contending on one counter.
+ *
+ * Sub-sequences share the count of the sequence they were taken from.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class CountingCharSequence implements CharSequence {
+
+    private final CharSequence text;
+    private final LongAdder count;
+
+    /**
+     * Wraps a CharSequence with a count of 0.
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the chars to count reads of
+     */
+    public CountingCharSequence(CharSequence text) {
+        this(checked(text), new LongAdder());
+    }
+
+    /**
+     * Wraps a CharSequence with a shared count.
+     *
+     * @param text the chars to count reads of
+     * @param count the count to add to
+     */
+    private CountingCharSequence(CharSequence text, LongAdder count) {
+        this.text = text;
+        this.count = count;
+    }
+
+    /**
+     * Rejects a null text.
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the text to check
+     * @return the text
+     */
+    private static CharSequence checked(CharSequence text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Input text is null, please"
+                    + " enter a valid input next time.");
+        }
+        return text;
+    }
+
+    @Override
+    public char charAt(int index) {
+        count.increment();
+        return text.charAt(index);
+    }
+
+    @Override
+    public int length() {
+        return text.length();
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new CountingCharSequence(text.subSequence(start, end), count);
+    }
+
+    /**
+     * Returns the number of times charAt has been called, on this sequence
+     * or any sub-sequence of it. Reads that happen at the same time may or
+     * may not be included.
+     *
+     * @return the number of chars read
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Sets the count back to 0.
+     */
+    public void reset() {
+        count.reset();
+    }
+
+    /**
+     * Returns the wrapped chars, without counting them as read.
+     *
+     * @return the wrapped CharSequence as a String
+     */
+    @Override
+    public String toString() {
+        return text.toString();
+    }
+}
@@ -0,0 +1,382 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable directed graph in compressed sparse row (CSR) form. Vertices
+ * get dense ids 0 to |V| - 1, and all edges live in three primitive arrays:
+ *
+ *  - offsets[v] to offsets[v + 1] is the range of v's outgoing edges
+ *  - targets[e] is the id of the vertex edge e leads to
+ *  - weights[e] is the weight of edge e
+ *
+ * Compared with {@link GraphAdjList}, which keeps a HashMap of Lists of
+ * Edge objects plus a HashSet of the same edges, this takes 8 bytes per edge
+ * instead of several objects, and visiting the neighbors of a vertex reads
+ * one contiguous slice of two arrays. Edge objects are only created for
+ * results, see the CsrGraph overloads in {@link GraphAlgs}.
+ *
+ * An undirected graph is stored like the other representations store it,
+ * with each edge once per direction.
+ *
+ * @param <T> the generic typing of the data
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class CsrGraph<T> {
+
+    private final List<Vertex<T>> vertices;
+    private final Map<Vertex<T>, Integer> ids;
+    final int[] offsets;
+    final int[] targets;
+    final int[] weights;
+
+    /**
+     * Creates a graph from edges already grouped by source vertex.
+     *
+     * @param vertices the vertices, indexed by dense id
+     * @param ids the dense id of each vertex
+     * @param offsets the start of each vertex's edges, and the edge count
+     * @param targets the target of each edge
+     * @param weights the weight of each edge
+     */
+    private CsrGraph(List<Vertex<T>> vertices, Map<Vertex<T>, Integer> ids,
+                     int[] offsets, int[] targets, int[] weights) {
+        this.vertices = vertices;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Builds the CSR form of an adjacency list graph. Vertices are numbered
+     * in the iteration order of the vertex set, and each vertex's edges keep
+     * the order of its adjacency list.
+     *
+     * Have a worst case running time of:
+     *  O(|V| + |E|)
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param <T> the generic typing of the data
+     * @param graph the graph to convert
+     * @return the graph in CSR form
+     */
+    public static <T> CsrGraph<T> fromAdjList(GraphAdjList<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Your input graph is null.");
+        }
+        List<Vertex<T>> vertices = new ArrayList<>(graph.getVertices());
+        Map<Vertex<T>, Integer> ids = numberVertices(vertices);
+        Map<Vertex<T>, List<Edge<T>>> adjList = graph.getAdjList();
+        int[] offsets = new int[vertices.size() + 1];
+        for (int u = 0; u < vertices.size(); u++) {
+            offsets[u + 1] = offsets[u] + adjList.get(vertices.get(u)).size();
+        }
+        int[] targets = new int[offsets[vertices.size()]];
+        int[] weights = new int[targets.length];
+        int e = 0;
+        for (Vertex<T> u : vertices) {
+            for (Edge<T> edge : adjList.get(u)) {
+                targets[e] = idOf(ids, edge.getV());
+                weights[e] = edge.getWeight();
+                e++;
+            }
+        }
+        return new CsrGraph<>(vertices, ids, offsets, targets, weights);
+    }
+
+    /**
+     * Builds the CSR form of an adjacency matrix graph. Each vertex keeps
+     * its id as its dense id, and its edges are ordered by target id, so a
+     * traversal visits neighbors in the same order as one over the matrix.
+     *
+     * Have a worst case running time of:
+     *  O(|V|^2)
+     *
+     * @throws IllegalArgumentException if the graph is null
+     * @param <T> the generic typing of the data
+     * @param graph the graph to convert
+     * @return the graph in CSR form
+     */
+    public static <T> CsrGraph<T> fromAdjMatrix(GraphAdjMatrix<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Your input graph is null.");
+        }
+        List<Vertex<T>> vertices = new ArrayList<>(graph.getVertices());
+        Map<Vertex<T>, Integer> ids = numberVertices(vertices);
+        Integer[][] matrix = graph.getAdjMatrix();
+        int n = vertices.size();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int degree = 0;
+            for (int v = 0; v < n; v++) {
+                if (matrix[u][v] != null) {
+                    degree++;
+                }
+            }
+            offsets[u + 1] = offsets[u] + degree;
+        }
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[targets.length];
+        int e = 0;
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                if (matrix[u][v] != null) {
+                    targets[e] = v;
+                    weights[e] = matrix[u][v];
+                    e++;
+                }
+            }
+        }
+        return new CsrGraph<>(vertices, ids, offsets, targets, weights);
+    }
+
+    /**
+     * Builds a CSR graph from a vertex collection and edges read once, in
+     * order, e.g. {@code stream::iterator} for a Stream of edges. Vertices
+     * are numbered in the iteration order of the collection, and each
+     * vertex's edges keep the order in which they were read.
+     *
+     * The edges are buffered in primitive arrays and grouped by source with
+     * a counting sort, so no Edge object is kept after it has been read.
+     *
+     * Have a worst case running time of:
+     *  O(|V| + |E|)
+     *
+     * @throws IllegalArgumentException if any input is null, or an edge has
+     * a vertex that is not in the collection
+     * @param <T> the generic typing of the data
+     * @param vertices the vertices of the graph
+     * @param edges the directed edges of the graph
+     * @return the graph in CSR form
+     */
+    public static <T> CsrGraph<T> fromEdges(
+            Collection<? extends Vertex<T>> vertices,
+            Iterable<? extends Edge<T>> edges) {
+        if (vertices == null || edges == null) {
+            throw new IllegalArgumentException("Arguments cannot be null.");
+        }
+        List<Vertex<T>> vertexList = new ArrayList<>(vertices);
+        Map<Vertex<T>, Integer> ids = numberVertices(vertexList);
+        int[] sources = new int[16];
+        int[] edgeTargets = new int[16];
+        int[] edgeWeights = new int[16];
+        int count = 0;
+        for (Edge<T> edge : edges) {
+            if (count == sources.length) {
+                int grown = count * 2;
+                sources = Arrays.copyOf(sources, grown);
+                edgeTargets = Arrays.copyOf(edgeTargets, grown);
+                edgeWeights = Arrays.copyOf(edgeWeights, grown);
+            }
+            sources[count] = idOf(ids, edge.getU());
+            edgeTargets[count] = idOf(ids, edge.getV());
+            edgeWeights[count] = edge.getWeight();
+            count++;
+        }
+
+        int n = vertexList.size();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < count; i++) {
+            offsets[sources[i] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int[] next = Arrays.copyOf(offsets, n);
+        int[] targets = new int[count];
+        int[] weights = new int[count];
+        for (int i = 0; i < count; i++) {
+            int e = next[sources[i]]++;
+            targets[e] = edgeTargets[i];
+            weights[e] = edgeWeights[i];
+        }
+        return new CsrGraph<>(vertexList, ids, offsets, targets, weights);
+    }
+
+    /**
+     * Gives every vertex its index in the list as its dense id.
+     *
+     * @throws IllegalArgumentException if the list has a null or duplicate
+     * vertex
+     * @param <T> the generic typing of the data
+     * @param vertices the vertices in id order
+     * @return the id of each vertex
+     */
+    private static <T> Map<Vertex<T>, Integer> numberVertices(
+            List<Vertex<T>> vertices) {
+        Map<Vertex<T>, Integer> ids = new HashMap<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            Vertex<T> v = vertices.get(i);
+            if (v == null || ids.put(v, i) != null) {
+                throw new IllegalArgumentException("Vertices cannot be null"
+                        + " or repeated.");
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Looks up the dense id of an edge's vertex.
+     *
+     * @throws IllegalArgumentException if the vertex is not in the graph
+     * @param <T> the generic typing of the data
+     * @param ids the id of each vertex
+     * @param v the vertex
+     * @return the dense id of v
+     */
+    private static <T> int idOf(Map<Vertex<T>, Integer> ids, Vertex<T> v) {
+        Integer id = ids.get(v);
+        if (id == null) {
+            throw new IllegalArgumentException("Vertex set must contain all"
+                    + " vertices of the graph.");
+        }
+        return id;
+    }
+
+    /**
+     * Gets the number of vertices.
+     *
+     * @return |V|
+     */
+    public int vertexCount() {
+        return vertices.size();
+    }
+
+    /**
+     * Gets the number of directed edges.
+     *
+     * @return |E|
+     */
+    public int edgeCount() {
+        return targets.length;
+    }
+
+    /**
+     * Gets the dense id of a vertex.
+     *
+     * @param v the vertex
+     * @return the id of v, or -1 if it is not in the graph
+     */
+    public int id(Vertex<T> v) {
+        Integer id = ids.get(v);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Gets the vertex with a dense id.
+     *
+     * @throws IndexOutOfBoundsException if id is not in [0, |V|)
+     * @param id the dense id
+     * @return the vertex
+     */
+    public Vertex<T> vertex(int id) {
+        return vertices.get(id);
+    }
+
+    /**
+     * Gets the index of a vertex's first outgoing edge. Its edges are the
+     * indices from this up to {@link #edgeEnd(int)}.
+     *
+     * @throws IndexOutOfBoundsException if id is not in [0, |V|)
+     * @param id the dense id of the vertex
+     * @return the index of the first edge
+     */
+    public int edgeStart(int id) {
+        checkId(id);
+        return offsets[id];
+    }
+
+    /**
+     * Gets one past the index of a vertex's last outgoing edge.
+     *
+     * @throws IndexOutOfBoundsException if id is not in [0, |V|)
+     * @param id the dense id of the vertex
+     * @return one past the index of the last edge
+     */
+    public int edgeEnd(int id) {
+        checkId(id);
+        return offsets[id + 1];
+    }
+
+    /**
+     * Gets the dense id of the vertex an edge leads to.
+     *
+     * @throws IndexOutOfBoundsException if e is not in [0, |E|)
+     * @param e the edge index
+     * @return the target's id
+     */
+    public int target(int e) {
+        return targets[e];
+    }
+
+    /**
+     * Gets the weight of an edge.
+     *
+     * @throws IndexOutOfBoundsException if e is not in [0, |E|)
+     * @param e the edge index
+     * @return the weight
+     */
+    public int weight(int e) {
+        return weights[e];
+    }
+
+    /**
+     * Finds the vertex an edge leaves from, by binary search over the
+     * offsets.
+     *
+     * Have a worst case running time of:
+     *  O(log |V|)
+     *
+     * @throws IndexOutOfBoundsException if e is not in [0, |E|)
+     * @param e the edge index
+     * @return the source's id
+     */
+    public int source(int e) {
+        if (e < 0 || e >= targets.length) {
+            throw new IndexOutOfBoundsException("Edge " + e
+                    + " is out of bounds for " + targets.length + " edges");
+        }
+        int lo = 0;
+        int hi = vertices.size() - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= e) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Creates the Edge object for an edge.
+     *
+     * @throws IndexOutOfBoundsException if e is not in [0, |E|)
+     * @param e the edge index
+     * @return the edge from its source to its target
+     */
+    public Edge<T> edge(int e) {
+        return new Edge<>(vertices.get(source(e)), vertices.get(targets[e]),
+                weights[e]);
+    }
+
+    /**
+     * Rejects a vertex id outside the graph.
+     *
+     * @throws IndexOutOfBoundsException if id is not in [0, |V|)
+     * @param id the id to check
+     */
+    private void checkId(int id) {
+        if (id < 0 || id >= vertices.size()) {
+            throw new IndexOutOfBoundsException("Vertex " + id
+                    + " is out of bounds for " + vertices.size()
+                    + " vertices");
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,567 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * External merge sort for files of fixed-width records that do not fit in
+ * the heap.
+ *
+ * The sort runs in two phases:
+ *
+ *  1. Run generation: the input is read through a FileChannel one run at a
+ *     time, each run is decoded into an array, sorted in memory with
+ *     Sorting.bufferedMergeSort and spilled to a temporary file.
+ *  2. Merging: the runs are k-way merged with a loser tree, which needs only
+ *     log2(k) comparisons per record. If there are more runs than the memory
+ *     budget allows to be open at once, groups of runs are first merged into
+ *     longer intermediate runs. Runs are read either through buffered
+ *     FileChannel reads or through memory-mapped windows.
+ *
+ * The sort is stable: records that compare equal appear in the output in the
+ * same order as in the input.
+ *
+ * Example:
+ *
+ *   ExternalSort<Long> sort = new ExternalSort<>(codec, Long::compare);
+ *   sort.setMemoryBudget(256L << 20);
+ *   sort.sort(Paths.get("in.bin"), Paths.get("out.bin"));
+ *
+ * @param <T> the record type
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public class ExternalSort<T> {
+
+    /**
+     * Default memory budget in bytes.
+     */
+    public static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /**
+     * Rough per-record heap cost on top of the encoded size: the object
+     * header and the references held by the run array and the merge sort
+     * buffer.
+     */
+    private static final int RECORD_OVERHEAD = 48;
+
+    /**
+     * Smallest read buffer given to each run during a merge.
+     */
+    private static final int MIN_MERGE_BUFFER = 64 << 10;
+
+    /**
+     * Largest single memory-mapped window, in bytes.
+     */
+    private static final long MAX_MAP_WINDOW = 1L << 30;
+
+    /**
+     * Number of output records between mergeProgress callbacks.
+     */
+    private static final long PROGRESS_INTERVAL = 1 << 20;
+
+    private final RecordCodec<T> codec;
+    private final Comparator<T> comparator;
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+    private int runSize;
+    private Path tempDirectory;
+    private boolean memoryMapped;
+    private ExternalSortListener listener = new ExternalSortListener() {
+    };
+
+    /**
+     * Creates an external sort for records read and written with codec and
+     * ordered by comparator.
+     *
+     * @throws IllegalArgumentException if the codec or comparator is null or
+     * the codec's record size is less than 1
+     * @param codec the codec for the records in the files
+     * @param comparator the Comparator used to order the records
+     */
+    public ExternalSort(RecordCodec<T> codec, Comparator<T> comparator) {
+        if (codec == null || comparator == null) {
+            throw new IllegalArgumentException("The codec or comparator is"
+                    + " null, please use a valid input next time.");
+        } else if (codec.recordSize() < 1) {
+            throw new IllegalArgumentException("Record size "
+                    + codec.recordSize() + " is invalid.");
+        }
+        this.codec = codec;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Sets the number of bytes the sort may use for records in memory and for
+     * merge buffers. Defaults to {@link #DEFAULT_MEMORY_BUDGET}.
+     *
+     * @throws IllegalArgumentException if the budget is smaller than 1 MB
+     * @param bytes the memory budget in bytes
+     */
+    public void setMemoryBudget(long bytes) {
+        if (bytes < (1 << 20)) {
+            throw new IllegalArgumentException("Memory budget " + bytes
+                    + " is invalid, it must be at least 1 MB.");
+        }
+        memoryBudget = bytes;
+    }
+
+    /**
+     * Sets the number of records in each initial sorted run. When unset, or
+     * set to 0, the run size is derived from the memory budget.
+     *
+     * @throws IllegalArgumentException if records is negative
+     * @param records the number of records per run, or 0 for automatic
+     */
+    public void setRunSize(int records) {
+        if (records < 0) {
+            throw new IllegalArgumentException("Run size " + records
+                    + " is invalid.");
+        }
+        runSize = records;
+    }
+
+    /**
+     * Sets the directory for temporary run files. When unset, or set to
+     * null, the directory of the output file is used.
+     *
+     * @param directory the directory for temporary files
+     */
+    public void setTempDirectory(Path directory) {
+        tempDirectory = directory;
+    }
+
+    /**
+     * Chooses between buffered FileChannel reads (the default) and
+     * memory-mapped windows when reading runs back during merges.
+     *
+     * @param mapped true to memory-map run files
+     */
+    public void setMemoryMapped(boolean mapped) {
+        memoryMapped = mapped;
+    }
+
+    /**
+     * Sets the listener that receives progress and metrics.
+     *
+     * @throws IllegalArgumentException if the listener is null
+     * @param listener the listener to notify
+     */
+    public void setListener(ExternalSortListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null.");
+        }
+        this.listener = listener;
+    }
+
+    /**
+     * Sorts the records of input into output. The output file is created or
+     * replaced. Temporary run files are deleted before returning, even if
+     * the sort fails.
+     *
+     * @throws IllegalArgumentException if input or output is null
+     * @throws IOException if a file cannot be read or written, or if the
+     * input length is not a multiple of the record size
+     * @param input the file of records to sort
+     * @param output the file to write the sorted records to
+     * @return the number of records sorted
+     */
+    public long sort(Path input, Path output) throws IOException {
+        if (input == null || output == null) {
+            throw new IllegalArgumentException("Input or output path is null,"
+                    + " please use a valid input next time.");
+        }
+        long start = System.nanoTime();
+        int recordSize = codec.recordSize();
+        long inputSize = Files.size(input);
+        if (inputSize % recordSize != 0) {
+            throw new IOException("Input length " + inputSize + " is not a"
+                    + " multiple of the record size " + recordSize + ".");
+        }
+        long total = inputSize / recordSize;
+        Path tempDir = tempDirectory;
+        if (tempDir == null) {
+            tempDir = output.toAbsolutePath().getParent();
+        }
+        List<Path> runs = new ArrayList<>();
+        List<Path> temps = new ArrayList<>();
+        long[] spilled = new long[1];
+        try {
+            createRuns(input, total, tempDir, runs, spilled);
+            temps.addAll(runs);
+            int initialRuns = runs.size();
+            int fanIn = maxFanIn();
+            int pass = 0;
+            while (runs.size() > fanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += fanIn) {
+                    List<Path> group = runs.subList(i,
+                            Math.min(i + fanIn, runs.size()));
+                    Path run = Files.createTempFile(tempDir, "run", ".tmp");
+                    temps.add(run);
+                    merged.add(run);
+                    spilled[0] += merge(group, run, -1);
+                    for (Path p : group) {
+                        Files.deleteIfExists(p);
+                    }
+                }
+                listener.mergePassFinished(pass++, runs.size(),
+                        merged.size());
+                runs = merged;
+            }
+            merge(runs, output, total);
+            listener.finished(total, initialRuns, spilled[0],
+                    System.nanoTime() - start);
+            return total;
+        } finally {
+            // Covers runs created before createRuns failed part way through
+            temps.addAll(runs);
+            for (Path temp : temps) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Computes the number of records per initial run.
+     *
+     * @return the run size in records
+     */
+    private int effectiveRunSize() {
+        if (runSize > 0) {
+            return runSize;
+        }
+        long records = memoryBudget / (codec.recordSize() + RECORD_OVERHEAD);
+        return (int) Math.max(1, Math.min(records, Integer.MAX_VALUE - 8));
+    }
+
+    /**
+     * Computes how many runs can be merged at once within the memory budget.
+     *
+     * @return the maximum merge fan-in, at least 2
+     */
+    private int maxFanIn() {
+        long buffer = Math.max(MIN_MERGE_BUFFER, codec.recordSize());
+        return (int) Math.max(2, Math.min(memoryBudget / buffer - 1, 1 << 16));
+    }
+
+    /**
+     * Reads the input one run at a time, sorts each run in memory and writes
+     * it to a temporary file.
+     *
+     * @throws IOException if a file cannot be read or written
+     * @param input the file of records to sort
+     * @param total the number of records in the input
+     * @param tempDir the directory for the run files
+     * @param runs receives the paths of the run files in input order
+     * @param spilled element 0 is increased by the bytes written
+     */
+    private void createRuns(Path input, long total, Path tempDir,
+                            List<Path> runs, long[] spilled)
+            throws IOException {
+        int recordSize = codec.recordSize();
+        int perRun = (int) Math.min(effectiveRunSize(), Math.max(1, total));
+        int ioRecords = Math.max(1, MIN_MERGE_BUFFER / recordSize);
+        ByteBuffer io = ByteBuffer.allocate(ioRecords * recordSize);
+        // Only ever holds decoded records, and never leaves this method
+        @SuppressWarnings("unchecked")
+        T[] records = (T[]) new Object[perRun];
+        try (FileChannel in = FileChannel.open(input,
+                StandardOpenOption.READ)) {
+            long remaining = total;
+            while (remaining > 0) {
+                int count = (int) Math.min(perRun, remaining);
+                int filled = 0;
+                while (filled < count) {
+                    int batch = Math.min(ioRecords, count - filled);
+                    io.clear();
+                    io.limit(batch * recordSize);
+                    readFully(in, io);
+                    io.flip();
+                    for (int i = 0; i < batch; i++) {
+                        records[filled++] = codec.decode(io);
+                    }
+                }
+                remaining -= count;
+                T[] run = records;
+                if (count < records.length) {
+                    run = Arrays.copyOf(records, count);
+                }
+                Sorting.bufferedMergeSort(run, comparator);
+                Path path = Files.createTempFile(tempDir, "run", ".tmp");
+                runs.add(path);
+                try (FileChannel out = FileChannel.open(path,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    io.clear();
+                    for (int i = 0; i < count; i++) {
+                        if (io.remaining() < recordSize) {
+                            io.flip();
+                            writeFully(out, io);
+                            io.clear();
+                        }
+                        codec.encode(run[i], io);
+                    }
+                    io.flip();
+                    writeFully(out, io);
+                }
+                long bytes = (long) count * recordSize;
+                spilled[0] += bytes;
+                listener.runWritten(runs.size() - 1, count, bytes);
+            }
+        }
+    }
+
+    /**
+     * Merges sorted run files into one sorted file with a loser tree.
+     *
+     * @throws IOException if a file cannot be read or written
+     * @param runs the run files to merge, in input order
+     * @param output the file to write the merged records to
+     * @param total the total number of records for progress callbacks, or -1
+     * to not report progress
+     * @return the number of bytes written
+     */
+    private long merge(List<Path> runs, Path output, long total)
+            throws IOException {
+        int recordSize = codec.recordSize();
+        long perRun = memoryBudget / (runs.size() + 1);
+        int bufferRecords = (int) Math.max(1,
+                Math.min(perRun, Integer.MAX_VALUE) / recordSize);
+        List<RunReader> readers = new ArrayList<>();
+        long written = 0;
+        try {
+            for (Path run : runs) {
+                readers.add(new RunReader(run, bufferRecords));
+            }
+            LoserTree tree = new LoserTree(readers);
+            ByteBuffer io = ByteBuffer.allocate(bufferRecords * recordSize);
+            try (FileChannel out = FileChannel.open(output,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (!tree.isEmpty()) {
+                    if (io.remaining() < recordSize) {
+                        io.flip();
+                        writeFully(out, io);
+                        io.clear();
+                    }
+                    codec.encode(tree.pop(), io);
+                    written++;
+                    if (total >= 0 && written % PROGRESS_INTERVAL == 0) {
+                        listener.mergeProgress(written, total);
+                    }
+                }
+                io.flip();
+                writeFully(out, io);
+            }
+            if (total >= 0) {
+                listener.mergeProgress(written, total);
+            }
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+        }
+        return written * recordSize;
+    }
+
+    /**
+     * Reads from the channel until the buffer is full.
+     *
+     * @throws IOException if the channel ends before the buffer is full
+     * @param channel the channel to read from
+     * @param buffer the buffer to fill
+     */
+    private static void readFully(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Unexpected end of file.");
+            }
+        }
+    }
+
+    /**
+     * Writes the whole buffer to the channel.
+     *
+     * @throws IOException if the channel cannot be written
+     * @param channel the channel to write to
+     * @param buffer the buffer to drain
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Sequential reader over one sorted run file that always has the next
+     * record decoded and ready.
+     */
+    private final class RunReader {
+        private final FileChannel channel;
+        private final long size;
+        private final int windowBytes;
+        private ByteBuffer window;
+        private long position;
+        private T head;
+
+        /**
+         * Opens a run file and decodes its first record.
+         *
+         * @throws IOException if the file cannot be read
+         * @param path the run file
+         * @param bufferRecords the number of records to read or map at once
+         */
+        RunReader(Path path, int bufferRecords) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            size = channel.size();
+            int recordSize = codec.recordSize();
+            long bytes = (long) bufferRecords * recordSize;
+            if (memoryMapped) {
+                bytes = Math.min(bytes, Math.max(1, MAX_MAP_WINDOW
+                        / recordSize) * recordSize);
+            }
+            windowBytes = (int) Math.min(bytes,
+                    (Integer.MAX_VALUE / recordSize) * (long) recordSize);
+            if (!memoryMapped) {
+                window = ByteBuffer.allocate(windowBytes);
+                window.limit(0);
+            }
+            advance();
+        }
+
+        /**
+         * Decodes the next record into head, or sets head to null at the end
+         * of the run.
+         *
+         * @throws IOException if the file cannot be read
+         */
+        void advance() throws IOException {
+            if (window == null || !window.hasRemaining()) {
+                if (position >= size) {
+                    head = null;
+                    return;
+                }
+                int length = (int) Math.min(windowBytes, size - position);
+                if (memoryMapped) {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY,
+                            position, length);
+                } else {
+                    window.clear();
+                    window.limit(length);
+                    readFully(channel, window);
+                    window.flip();
+                }
+                position += length;
+            }
+            head = codec.decode(window);
+        }
+
+        /**
+         * Closes the underlying file.
+         *
+         * @throws IOException if the file cannot be closed
+         */
+        void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * Tournament tree of losers over the heads of k runs. tree[0] holds the
+     * index of the run with the smallest head, and every internal node holds
+     * the run that lost the match at that node, so replacing the winner only
+     * replays the matches on its path to the root. Exhausted runs lose every
+     * match, and ties go to the run with the lower index, which keeps the
+     * merge stable.
+     */
+    private final class LoserTree {
+        private final List<RunReader> readers;
+        private final int[] tree;
+        private final int k;
+
+        /**
+         * Builds the tree over the current heads of the readers.
+         *
+         * @param readers the runs being merged, in input order
+         */
+        LoserTree(List<RunReader> readers) {
+            this.readers = readers;
+            this.k = readers.size();
+            this.tree = new int[Math.max(1, k)];
+            // -1 is a virtual run that beats everything, so every real run
+            // settles into a loser slot as the leaves are replayed
+            Arrays.fill(tree, -1);
+            for (int i = k - 1; i >= 0; i--) {
+                replay(i);
+            }
+        }
+
+        /**
+         * Checks whether every run has been exhausted.
+         *
+         * @return true if there are no more records
+         */
+        boolean isEmpty() {
+            return k == 0 || readers.get(tree[0]).head == null;
+        }
+
+        /**
+         * Removes and returns the smallest head record.
+         *
+         * @throws IOException if a run file cannot be read
+         * @return the smallest remaining record
+         */
+        T pop() throws IOException {
+            int winner = tree[0];
+            RunReader reader = readers.get(winner);
+            T record = reader.head;
+            reader.advance();
+            replay(winner);
+            return record;
+        }
+
+        /**
+         * Replays the matches from leaf s up to the root.
+         *
+         * @param s the run whose head changed
+         */
+        private void replay(int s) {
+            for (int t = (s + k) >>> 1; t > 0; t >>>= 1) {
+                if (beats(tree[t], s)) {
+                    int temp = tree[t];
+                    tree[t] = s;
+                    s = temp;
+                }
+            }
+            tree[0] = s;
+        }
+
+        /**
+         * Decides whether run a's head comes before run b's head.
+         *
+         * @param a the first run, or -1 for the virtual minimum
+         * @param b the second run, or -1 for the virtual minimum
+         * @return true if a wins the match
+         */
+        private boolean beats(int a, int b) {
+            if (a == -1 || b == -1) {
+                return a == -1;
+            }
+            T x = readers.get(a).head;
+            T y = readers.get(b).head;
+            if (x == null || y == null) {
+                return y == null && (x != null || a < b);
+            }
+            int cmp = comparator.compare(x, y);
+            return cmp < 0 || cmp == 0 && a < b;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Receives progress and metrics from an ExternalSort. All methods have empty
+ * default implementations, so a listener only overrides what it needs.
+ *
+ * Callbacks are made on the thread that called ExternalSort.sort.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public interface ExternalSortListener {
+
+    /**
+     * Called after a sorted run has been written to a temporary file.
+     *
+     * @param run the index of the run, starting at 0
+     * @param records the number of records in the run
+     * @param bytes the number of bytes written for the run
+     */
+    default void runWritten(int run, int records, long bytes) {
+    }
+
+    /**
+     * Called after each merge pass that combines runs into longer
+     * intermediate runs, when there are more runs than can be merged at once.
+     *
+     * @param pass the index of the pass, starting at 0
+     * @param runsBefore the number of runs before the pass
+     * @param runsAfter the number of runs after the pass
+     */
+    default void mergePassFinished(int pass, int runsBefore, int runsAfter) {
+    }
+
+    /**
+     * Called periodically during the final merge into the output file.
+     *
+     * @param recordsMerged the number of records written to the output so far
+     * @param totalRecords the total number of records being sorted
+     */
+    default void mergeProgress(long recordsMerged, long totalRecords) {
+    }
+
+    /**
+     * Called once after the output file has been completely written.
+     *
+     * @param records the number of records sorted
+     * @param runs the number of initial sorted runs
+     * @param bytesSpilled the total number of bytes written to temporary files
+     * @param nanos the wall clock time of the whole sort in nanoseconds
+     */
+    default void finished(long records, int runs, long bytesSpilled,
+                          long nanos) {
+    }
+}
@@ -1,3 +1,4 @@
+import java.util.Arrays;
 import java.util.Set;
 import java.util.HashSet;
 import java.util.List;
@@ -276,4 +277,390 @@ public class GraphAlgs {
         }
         return msf;
     }
+
+    /**
+     * Performs a depth first search (dfs) on a graph in CSR form, starting
+     * at {@code start}, and adds the vertices to dfsList in visited order.
+     *
+     * Neighbors are visited in the order of each vertex's edges, so on a
+     * graph built with {@link CsrGraph#fromAdjMatrix(GraphAdjMatrix)} the
+     * order is the same as that of
+     * {@link #depthFirstSearch(Vertex, GraphAdjMatrix, List)}. The search is
+     * iterative, keeping the next edge to try of every vertex on the path in
+     * an int array, so deep graphs cannot overflow the call stack.
+     *
+     * Have a worst case running time of:
+     *  O(|V| + |E|)
+     *
+     * @throws IllegalArgumentException if any input
+     *  is null, or if {@code start} doesn't exist in the graph
+     * @param <T> the generic typing of the data
+     * @param start the vertex to begin the dfs on
+     * @param graph the graph in CSR format to search
+     * @param dfsList the list of visited vertices in order
+     * @return true if the graph is connected (you were able to reach every
+     * vertex from {@code start}), false otherwise
+     */
+    public static <T> boolean depthFirstSearch(Vertex<T> start,
+                                               CsrGraph<T> graph,
+                                               List<Vertex<T>> dfsList) {
+        if (start == null || graph == null || dfsList == null
+                || graph.id(start) < 0) {
+            throw new IllegalArgumentException("One or more of your inputs"
+                    + " is invalid. Please check if any are null and if"
+                    + " the vertex " + start + " is in the graph");
+        }
+        int n = graph.vertexCount();
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        boolean[] visited = new boolean[n];
+        int[] path = new int[n];
+        int[] nextEdge = new int[n];
+        int depth = 0;
+        int s = graph.id(start);
+        visited[s] = true;
+        dfsList.add(start);
+        path[0] = s;
+        nextEdge[0] = offsets[s];
+        int count = 1;
+        while (depth >= 0) {
+            int v = path[depth];
+            int e = nextEdge[depth];
+            while (e < offsets[v + 1] && visited[targets[e]]) {
+                e++;
+            }
+            if (e == offsets[v + 1]) {
+                depth--;
+            } else {
+                nextEdge[depth] = e + 1;
+                int u = targets[e];
+                visited[u] = true;
+                dfsList.add(graph.vertex(u));
+                count++;
+                depth++;
+                path[depth] = u;
+                nextEdge[depth] = offsets[u];
+            }
+        }
+        return count == n;
+    }
+
+    /**
+     * Finds the shortest distance from the start vertex to every vertex of a
+     * graph in CSR form with Dijkstra's algorithm, with the same result as
+     * {@link #shortPathDijk(Vertex, GraphAdjList)}.
+     *
+     * @throws IllegalArgumentException if any input
+     *  is null, or if start doesn't exist in the graph.
+     * @throws IllegalStateException if any of the edges are negative
+     * @param <T> the generic typing of the data
+     * @param start the vertex to start at (source)
+     * @param graph the graph in CSR format to search
+     * @return a map of the shortest distances from start to every other node
+     *         in the graph, Integer.MAX_VALUE where there is no path
+     */
+    public static <T> Map<Vertex<T>, Integer> shortPathDijk(Vertex<T> start,
+                                                      CsrGraph<T> graph) {
+        if (start == null || graph == null || graph.id(start) < 0) {
+            throw new IllegalArgumentException("One or more of your inputs"
+                    + " is invalid. Please check if any are null and if"
+                    + " the vertex " + start + " is in the graph");
+        }
+        int[] dist = shortPathDijk(graph.id(start), graph);
+        Map<Vertex<T>, Integer> paths = new HashMap<>();
+        for (int v = 0; v < dist.length; v++) {
+            paths.put(graph.vertex(v), dist[v]);
+        }
+        return paths;
+    }
+
+    /**
+     * Finds the shortest distance from the start vertex to every vertex of a
+     * graph in CSR form with Dijkstra's algorithm, using only primitive
+     * arrays. The priority queue is a binary heap of longs, each holding a
+     * tentative distance in its high half and a vertex id in its low half,
+     * so entries order by distance and nothing is boxed. Entries made stale
+     * by a shorter path are skipped when they are polled.
+     *
+     * Have a worst case running time of:
+     *  O((|V| + |E|) log |E|)
+     *
+     * @throws IllegalArgumentException if the graph is null, or if start is
+     * not a vertex id of the graph
+     * @throws IllegalStateException if any of the edges are negative
+     * @param start the dense id of the vertex to start at (source)
+     * @param graph the graph in CSR format to search
+     * @return the shortest distance to each vertex, indexed by dense id,
+     * Integer.MAX_VALUE where there is no path
+     */
+    public static int[] shortPathDijk(int start, CsrGraph<?> graph) {
+        if (graph == null || start < 0 || start >= graph.vertexCount()) {
+            throw new IllegalArgumentException("One or more of your inputs"
+                    + " is invalid. Please check if the graph is null and if"
+                    + " the vertex " + start + " is in the graph");
+        }
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        for (int e = 0; e < weights.length; e++) {
+            if (weights[e] < 0) {
+                throw new IllegalStateException(graph.edge(e)
+                        + " has an invalid weight.");
+            }
+        }
+        int[] dist = new int[graph.vertexCount()];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        boolean[] visited = new boolean[dist.length];
+        LongHeap heap = new LongHeap();
+        dist[start] = 0;
+        heap.add(start);
+        while (!heap.isEmpty()) {
+            long entry = heap.poll();
+            int u = (int) entry;
+            if (visited[u]) {
+                continue;
+            }
+            visited[u] = true;
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int v = targets[e];
+                long d = (long) dist[u] + weights[e];
+                if (d < dist[v]) {
+                    dist[v] = (int) d;
+                    heap.add((d << 32) | v);
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Runs Prim's algorithm on a graph in CSR form and returns the MST/MSF
+     * in the form of a set of Edges, each in both directions like
+     * {@link #mstPrim(GraphAdjList)}. When the graph is disconnected the
+     * algorithm is started again from each vertex it has not reached, so
+     * the result always spans every component.
+     *
+     * The candidate edges are kept in a binary heap of longs, each holding
+     * an edge's weight in its high half and its index in its low half; Edge
+     * objects are only created for the edges of the result.
+     *
+     * You may assume that the graph is undirected.
+     *
+     * Have a worst case running time of:
+     *  O(|V| + |E| log |E|)
+     *
+     * @throws IllegalArgumentException if any input is null
+     * @param <T> the generic typing of the data
+     * @param graph the graph in CSR format
+     * @return the MST/MSF of the graph
+     */
+    public static <T> Set<Edge<T>> mstPrim(CsrGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Your input graph is null.");
+        }
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        boolean[] visited = new boolean[graph.vertexCount()];
+        Set<Edge<T>> msf = new HashSet<>();
+        LongHeap heap = new LongHeap();
+        int reached = 0;
+        for (int root = 0; root < visited.length; root++) {
+            if (visited[root]) {
+                continue;
+            }
+            visited[root] = true;
+            reached++;
+            addEdges(heap, root, offsets, weights);
+            while (!heap.isEmpty() && reached < visited.length) {
+                int e = (int) heap.poll();
+                int v = targets[e];
+                if (!visited[v]) {
+                    visited[v] = true;
+                    reached++;
+                    addMstEdge(msf, graph, e);
+                    addEdges(heap, v, offsets, weights);
+                }
+            }
+            heap.clear();
+        }
+        return msf;
+    }
+
+    /**
+     * Pushes the outgoing edges of a vertex onto a heap, keyed by weight.
+     *
+     * @param heap the heap of candidate edges
+     * @param v the dense id of the vertex
+     * @param offsets the CSR offsets
+     * @param weights the CSR weights
+     */
+    private static void addEdges(LongHeap heap, int v, int[] offsets,
+                                 int[] weights) {
+        for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+            heap.add(((long) weights[e] << 32) | e);
+        }
+    }
+
+    /**
+     * Runs Kruskal's algorithm on a graph in CSR form and returns the
+     * MST/MSF in the form of a set of Edges, each in both directions like
+     * {@link #mstKruskal(GraphAdjList)}.
+     *
+     * The edges are sorted once as longs holding each edge's weight in the
+     * high half and its index in the low half, and the components are
+     * tracked by an int array union-find with path halving and union by
+     * size instead of a {@link DisjointSet} of vertices.
+     *
+     * You may assume that the graph is undirected.
+     *
+     * Have a worst case running time of:
+     *  O(|V| + |E| log |E|)
+     *
+     * @throws IllegalArgumentException if any input is null
+     * @param <T> the generic typing of the data
+     * @param graph the graph in CSR format
+     * @return the MST/MSF of the graph
+     */
+    public static <T> Set<Edge<T>> mstKruskal(CsrGraph<T> graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Your input graph is null.");
+        }
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] weights = graph.weights;
+        int n = graph.vertexCount();
+        long[] order = new long[targets.length];
+        int[] sources = new int[targets.length];
+        for (int u = 0; u < n; u++) {
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                order[e] = ((long) weights[e] << 32) | e;
+                sources[e] = u;
+            }
+        }
+        Arrays.sort(order);
+        int[] parent = new int[n];
+        int[] size = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = v;
+            size[v] = 1;
+        }
+        Set<Edge<T>> msf = new HashSet<>();
+        int trees = n;
+        for (int i = 0; i < order.length && trees > 1; i++) {
+            int e = (int) order[i];
+            int a = find(parent, sources[e]);
+            int b = find(parent, targets[e]);
+            if (a != b) {
+                if (size[a] < size[b]) {
+                    int swap = a;
+                    a = b;
+                    b = swap;
+                }
+                parent[b] = a;
+                size[a] += size[b];
+                trees--;
+                addMstEdge(msf, graph, e);
+            }
+        }
+        return msf;
+    }
+
+    /**
+     * Finds the root of a vertex's tree in an int array union-find, halving
+     * the path on the way.
+     *
+     * @param parent the parent of each vertex, roots being their own parent
+     * @param v the dense id of the vertex
+     * @return the dense id of the root
+     */
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /**
+     * Adds a CSR edge to a spanning forest in both directions.
+     *
+     * @param <T> the generic typing of the data
+     * @param msf the spanning forest
+     * @param graph the graph the edge is in
+     * @param e the edge index
+     */
+    private static <T> void addMstEdge(Set<Edge<T>> msf, CsrGraph<T> graph,
+                                       int e) {
+        Edge<T> edge = graph.edge(e);
+        msf.add(edge);
+        // Since the graph is undirected, add the conjugate edge
+        msf.add(new Edge<>(edge.getV(), edge.getU(), edge.getWeight()));
+    }
+
+    /**
+     * A growable binary min-heap of longs, the priority queue of the CSR
+     * graph algorithms.
+     */
+    private static final class LongHeap {
+        private long[] heap = new long[16];
+        private int size;
+
+        /**
+         * Checks if the heap is empty.
+         *
+         * @return true if there are no entries
+         */
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        /**
+         * Removes every entry.
+         */
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * Adds an entry.
+         *
+         * @param entry the entry to add
+         */
+        void add(long entry) {
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            int i = size++;
+            while (i > 0 && heap[(i - 1) >>> 1] > entry) {
+                heap[i] = heap[(i - 1) >>> 1];
+                i = (i - 1) >>> 1;
+            }
+            heap[i] = entry;
+        }
+
+        /**
+         * Removes the smallest entry.
+         *
+         * @return the smallest entry
+         */
+        long poll() {
+            long min = heap[0];
+            long last = heap[--size];
+            int i = 0;
+            int child;
+            while ((child = 2 * i + 1) < size) {
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[child] >= last) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = last;
+            return min;
+        }
+    }
 }
\ No newline at end of file
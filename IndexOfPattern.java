@@ -0,0 +1,144 @@
+import java.util.function.IntPredicate;
+
+/**
+ * A pattern searched for with a plain memchr-style scan: find the next
+ * occurrence of its first char, then compare the rest. There are no tables
+ * to build, so compiling is as cheap as copying the pattern.
+ *
+ * When the text is a String, the scan for the first char is
+ * {@link String#indexOf(int, int)}, which the JIT compiles to a vectorized
+ * search, and which beats any skipping algorithm when the pattern is a
+ * single char or a few chars long. For longer patterns the worst case is
+ * O(mn), so {@link SearchSelector} only picks it for tiny patterns and short
+ * texts.
+ *
+ * Instances are immutable and can be shared freely between threads.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class IndexOfPattern extends CompiledPattern {
+
+    /**
+     * Compiles the pattern.
+     *
+     * Have a worst case running time of:
+     *  O(m)
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     */
+    public IndexOfPattern(CharSequence pattern) {
+        super(pattern);
+    }
+
+    /**
+     * Jumps from one occurrence of the first char to the next, comparing
+     * the rest of the pattern at each.
+     *
+     * Have a worst case running time of:
+     *  O(mn)
+     *
+     * @param text the body of text to search
+     * @param from the first index a match may start at
+     * @param onMatch receives the starting index of each match
+     * @return true if the whole text was scanned
+     */
+    @Override
+    boolean scan(CharSequence text, int from, IntPredicate onMatch) {
+        int m = pattern.length;
+        int last = text.length() - m;
+        char first = pattern[0];
+        String string = text instanceof String ? (String) text : null;
+        int i = from;
+        while (i <= last) {
+            i = string != null ? string.indexOf(first, i)
+                    : indexOf(text, first, i, last);
+            if (i < 0 || i > last) {
+                return true;
+            }
+            if (restMatches(text, i) && !onMatch.test(i)) {
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+    /**
+     * Scans the text one position at a time, recording its work. Finds the
+     * same matches as {@link #scan(CharSequence, int, IntPredicate)}.
+     *
+     * Have a worst case running time of:
+     *  O(mn)
+     *
+     * @param text the body of text to search
+     * @param from the first index a match may start at
+     * @param onMatch receives the starting index of each match
+     * @param metrics receives the work done
+     * @return true if the whole text was scanned
+     */
+    @Override
+    boolean scan(CharSequence text, int from, IntPredicate onMatch,
+                 SearchMetrics metrics) {
+        int m = pattern.length;
+        int last = text.length() - m;
+        for (int i = from; i <= last; i++) {
+            metrics.compared(1);
+            if (text.charAt(i) == pattern[0]) {
+                int j = 1;
+                while (j < m && text.charAt(i + j) == pattern[j]) {
+                    j++;
+                }
+                metrics.compared(Math.min(j, m - 1));
+                if (j == m && !onMatch.test(i)) {
+                    return false;
+                }
+            }
+            metrics.shifted(1);
+        }
+        return true;
+    }
+
+    @Override
+    String algorithm() {
+        return "indexOf";
+    }
+
+    /**
+     * Finds the next occurrence of a char in a CharSequence that is not a
+     * String.
+     *
+     * @param text the body of text to search
+     * @param c the char to find
+     * @param from the first index to look at
+     * @param last the last index to look at
+     * @return the index of c, or -1 if it does not occur in [from, last]
+     */
+    private static int indexOf(CharSequence text, char c, int from,
+                               int last) {
+        for (int i = from; i <= last; i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the pattern after its first char with the text at one
+     * position.
+     *
+     * @param text the body of text to search
+     * @param i the starting index in the text
+     * @return true if the pattern occurs at i
+     */
+    private boolean restMatches(CharSequence text, int i) {
+        for (int j = 1; j < pattern.length; j++) {
+            if (text.charAt(i + j) != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,111 @@
+import java.util.function.IntPredicate;
+
+/**
+ * A pattern compiled for Knuth-Morris-Pratt searching. The failure table is
+ * built once, and every search reads each text char exactly once, never
+ * backing up, so the running time is O(n) for any text.
+ *
+ * Instances are immutable and can be shared freely between threads.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class KmpPattern extends CompiledPattern {
+
+    private final int[] failureTable;
+
+    /**
+     * Compiles the pattern.
+     *
+     * Have a worst case running time of:
+     *  O(m)
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     */
+    public KmpPattern(CharSequence pattern) {
+        super(pattern);
+        failureTable = StringSearching.buildFailureTable(pattern);
+    }
+
+    /**
+     * Scans the text with the KMP automaton.
+     *
+     * Have a worst case running time of:
+     *  O(n)
+     *
+     * @param text the body of text to search
+     * @param from the first index a match may start at
+     * @param onMatch receives the starting index of each match
+     * @return true if the whole text was scanned
+     */
+    @Override
+    boolean scan(CharSequence text, int from, IntPredicate onMatch) {
+        int m = pattern.length;
+        int n = text.length();
+        int j = 0;
+        for (int i = from; i < n; i++) {
+            char c = text.charAt(i);
+            while (j > 0 && pattern[j] != c) {
+                j = failureTable[j - 1];
+            }
+            if (pattern[j] == c) {
+                j++;
+            }
+            if (j == m) {
+                if (!onMatch.test(i - m + 1)) {
+                    return false;
+                }
+                j = failureTable[m - 1];
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Scans the text with the KMP automaton, recording its work.
+     *
+     * Have a worst case running time of:
+     *  O(n)
+     *
+     * @param text the body of text to search
+     * @param from the first index a match may start at
+     * @param onMatch receives the starting index of each match
+     * @param metrics receives the work done
+     * @return true if the whole text was scanned
+     */
+    @Override
+    boolean scan(CharSequence text, int from, IntPredicate onMatch,
+                 SearchMetrics metrics) {
+        int m = pattern.length;
+        int n = text.length();
+        int j = 0;
+        for (int i = from; i < n; i++) {
+            char c = text.charAt(i);
+            while (j > 0 && pattern[j] != c) {
+                metrics.compared(1);
+                metrics.shifted(j - failureTable[j - 1]);
+                j = failureTable[j - 1];
+            }
+            metrics.compared(1);
+            if (pattern[j] == c) {
+                j++;
+            } else {
+                metrics.shifted(1);
+            }
+            if (j == m) {
+                if (!onMatch.test(i - m + 1)) {
+                    return false;
+                }
+                metrics.shifted(m - failureTable[m - 1]);
+                j = failureTable[m - 1];
+            }
+        }
+        return true;
+    }
+
+    @Override
+    String algorithm() {
+        return "kmp";
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.Arrays;
+
+/**
+ * A growable list of match offsets stored in an int[], for results with too
+ * many matches to box each one into a List of Integers. Holding n matches
+ * takes about 4n bytes, against about 40n for a LinkedList of Integers.
+ *
+ * It is not thread-safe.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class MatchList {
+
+    /**
+     * Capacity of a list created without a size hint.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] offsets;
+    private int size;
+
+    /**
+     * Creates an empty list.
+     */
+    public MatchList() {
+        offsets = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Appends an offset, doubling the backing array when it is full.
+     *
+     * Have an amortized running time of:
+     *  O(1)
+     *
+     * @param offset the offset to append
+     */
+    public void add(int offset) {
+        if (size == offsets.length) {
+            offsets = Arrays.copyOf(offsets, 2 * offsets.length);
+        }
+        offsets[size++] = offset;
+    }
+
+    /**
+     * Returns the offset at an index.
+     *
+     * @throws IndexOutOfBoundsException if index is not in [0, size)
+     * @param index the index of the offset
+     * @return the offset
+     */
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index
+                    + " is out of bounds for size " + size);
+        }
+        return offsets[index];
+    }
+
+    /**
+     * Returns the number of offsets.
+     *
+     * @return the number of offsets
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the list holds no offsets.
+     *
+     * @return true if the list is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Copies the offsets into an array of exactly the list's size.
+     *
+     * @return the offsets
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(offsets, size);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(offsets[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,379 @@
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel LSD (least significant digit) radix sort for large int and long
+ * arrays, plus index permutation sorts for records with an int or long key.
+ *
+ * Every pass splits the array into one contiguous chunk per worker. Each
+ * worker builds a histogram of the current 8-bit digit for its chunk, the
+ * histograms are combined with a global prefix sum (digit-major, then chunk
+ * order), and each worker then scatters its chunk into the scratch array at
+ * its own precomputed offsets. Because chunks keep their relative order
+ * within every bucket, each pass, and therefore the sort, is stable.
+ *
+ * Arrays shorter than {@link #PARALLEL_THRESHOLD} are sorted on the calling
+ * thread with the same passes.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public class ParallelRadixSort {
+
+    /**
+     * Number of key bits consumed by each pass.
+     */
+    private static final int RADIX_BITS = 8;
+
+    /**
+     * Number of buckets per pass.
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+
+    /**
+     * Mask that extracts one digit after shifting.
+     */
+    private static final int MASK = RADIX - 1;
+
+    /**
+     * Array length below which the sort runs on a single thread.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Prevents instantiation, all methods are static.
+     */
+    private ParallelRadixSort() {
+    }
+
+    /**
+     * Sorts an int array in ascending order.
+     *
+     * It should be:
+     *  stable
+     *
+     * Have a worst case running time of:
+     *  O(n), in at most 4 passes over the array
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param arr the array to be sorted
+     */
+    public static void sort(int[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        radixSort(arr, null);
+    }
+
+    /**
+     * Sorts a long array in ascending order using the full 64-bit key.
+     *
+     * It should be:
+     *  stable
+     *
+     * Have a worst case running time of:
+     *  O(n), in at most 8 passes over the array
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param arr the array to be sorted
+     */
+    public static void sort(long[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        radixSort(arr, null);
+    }
+
+    /**
+     * Computes the stable sorted order of an array of int keys without
+     * modifying it. The returned permutation lists the indices of keys from
+     * smallest to largest key, with equal keys in increasing index order.
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param keys the keys to order
+     * @return the indices of keys in sorted order
+     */
+    public static int[] sortedOrder(int[] keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        int[] order = identity(keys.length);
+        radixSort(keys.clone(), order);
+        return order;
+    }
+
+    /**
+     * Computes the stable sorted order of an array of long keys without
+     * modifying it. The returned permutation lists the indices of keys from
+     * smallest to largest key, with equal keys in increasing index order.
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param keys the keys to order
+     * @return the indices of keys in sorted order
+     */
+    public static int[] sortedOrder(long[] keys) {
+        if (keys == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        int[] order = identity(keys.length);
+        radixSort(keys.clone(), order);
+        return order;
+    }
+
+    /**
+     * Computes the stable sorted order of records by an int key without
+     * moving the records. The key of each record is extracted exactly once.
+     *
+     * Example: {@code records[order[0]]} is the record with the smallest key.
+     *
+     * @throws IllegalArgumentException if the records or key extractor is
+     * null
+     * @param <T> the record type
+     * @param records the records to order
+     * @param key extracts the int sort key of a record
+     * @return the indices of records in sorted key order
+     */
+    public static <T> int[] sortedOrderByInt(T[] records,
+                                             ToIntFunction<? super T> key) {
+        if (records == null || key == null) {
+            throw new IllegalArgumentException("The input records or key"
+                    + " extractor is null, please use a valid input next"
+                    + " time.");
+        }
+        int[] keys = new int[records.length];
+        for (int i = 0; i < records.length; i++) {
+            keys[i] = key.applyAsInt(records[i]);
+        }
+        int[] order = identity(keys.length);
+        radixSort(keys, order);
+        return order;
+    }
+
+    /**
+     * Computes the stable sorted order of records by a long key without
+     * moving the records. The key of each record is extracted exactly once.
+     *
+     * @throws IllegalArgumentException if the records or key extractor is
+     * null
+     * @param <T> the record type
+     * @param records the records to order
+     * @param key extracts the long sort key of a record
+     * @return the indices of records in sorted key order
+     */
+    public static <T> int[] sortedOrderByLong(T[] records,
+                                              ToLongFunction<? super T> key) {
+        if (records == null || key == null) {
+            throw new IllegalArgumentException("The input records or key"
+                    + " extractor is null, please use a valid input next"
+                    + " time.");
+        }
+        long[] keys = new long[records.length];
+        for (int i = 0; i < records.length; i++) {
+            keys[i] = key.applyAsLong(records[i]);
+        }
+        int[] order = identity(keys.length);
+        radixSort(keys, order);
+        return order;
+    }
+
+    /**
+     * Builds the identity permutation 0, 1, ..., n - 1.
+     *
+     * @param n the length of the permutation
+     * @return the identity permutation
+     */
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * Decides how many chunks to split an array of the given length into.
+     *
+     * @param n the array length
+     * @return the number of chunks, at least 1
+     */
+    private static int chunkCount(int n) {
+        if (n < PARALLEL_THRESHOLD) {
+            return 1;
+        }
+        int workers = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(workers, n / (PARALLEL_THRESHOLD / 4)));
+    }
+
+    /**
+     * Runs body once for every chunk index, in parallel when there is more
+     * than one chunk.
+     *
+     * @param chunks the number of chunks
+     * @param body the work to do for one chunk index
+     */
+    private static void forEachChunk(int chunks, IntConsumer body) {
+        if (chunks == 1) {
+            body.accept(0);
+        } else {
+            IntStream.range(0, chunks).parallel().forEach(body);
+        }
+    }
+
+    /**
+     * Turns per-chunk histograms into per-chunk scatter offsets in place.
+     * Offsets are assigned digit by digit, and within a digit chunk by
+     * chunk, which is what keeps the scatter stable.
+     *
+     * @param counts the histogram of each chunk, indexed [chunk][digit]
+     * @param n the total number of elements
+     * @return false if every element has the same digit and the pass can be
+     * skipped, true otherwise
+     */
+    private static boolean prefixSum(int[][] counts, int n) {
+        int sum = 0;
+        for (int digit = 0; digit < RADIX; digit++) {
+            int total = 0;
+            for (int[] count : counts) {
+                total += count[digit];
+            }
+            if (total == n) {
+                return false;
+            }
+            for (int[] count : counts) {
+                int c = count[digit];
+                count[digit] = sum;
+                sum += c;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sorts int keys in place, applying the same permutation to payload when
+     * it is not null.
+     *
+     * @param keys the keys to sort
+     * @param payload values moved alongside the keys, or null
+     */
+    private static void radixSort(int[] keys, int[] payload) {
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+        int chunks = chunkCount(n);
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] counts = new int[chunks][RADIX];
+        int[] src = keys;
+        int[] dst = new int[n];
+        int[] srcPayload = payload;
+        int[] dstPayload = payload == null ? null : new int[n];
+        for (int shift = 0; shift < Integer.SIZE; shift += RADIX_BITS) {
+            final int[] from = src;
+            final int[] to = dst;
+            final int[] fromPayload = srcPayload;
+            final int[] toPayload = dstPayload;
+            final int s = shift;
+            forEachChunk(chunks, c -> {
+                int[] count = counts[c];
+                Arrays.fill(count, 0);
+                int hi = Math.min(n, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < hi; i++) {
+                    count[((from[i] ^ Integer.MIN_VALUE) >>> s) & MASK]++;
+                }
+            });
+            if (!prefixSum(counts, n)) {
+                continue;
+            }
+            forEachChunk(chunks, c -> {
+                int[] offset = counts[c];
+                int hi = Math.min(n, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < hi; i++) {
+                    int pos = offset[((from[i] ^ Integer.MIN_VALUE) >>> s)
+                            & MASK]++;
+                    to[pos] = from[i];
+                    if (fromPayload != null) {
+                        toPayload[pos] = fromPayload[i];
+                    }
+                }
+            });
+            src = to;
+            dst = from;
+            srcPayload = toPayload;
+            dstPayload = fromPayload;
+        }
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, n);
+            if (payload != null) {
+                System.arraycopy(srcPayload, 0, payload, 0, n);
+            }
+        }
+    }
+
+    /**
+     * Sorts long keys in place, applying the same permutation to payload
+     * when it is not null.
+     *
+     * @param keys the keys to sort
+     * @param payload values moved alongside the keys, or null
+     */
+    private static void radixSort(long[] keys, int[] payload) {
+        int n = keys.length;
+        if (n < 2) {
+            return;
+        }
+        int chunks = chunkCount(n);
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[][] counts = new int[chunks][RADIX];
+        long[] src = keys;
+        long[] dst = new long[n];
+        int[] srcPayload = payload;
+        int[] dstPayload = payload == null ? null : new int[n];
+        for (int shift = 0; shift < Long.SIZE; shift += RADIX_BITS) {
+            final long[] from = src;
+            final long[] to = dst;
+            final int[] fromPayload = srcPayload;
+            final int[] toPayload = dstPayload;
+            final int s = shift;
+            forEachChunk(chunks, c -> {
+                int[] count = counts[c];
+                Arrays.fill(count, 0);
+                int hi = Math.min(n, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < hi; i++) {
+                    count[(int) ((from[i] ^ Long.MIN_VALUE) >>> s) & MASK]++;
+                }
+            });
+            if (!prefixSum(counts, n)) {
+                continue;
+            }
+            forEachChunk(chunks, c -> {
+                int[] offset = counts[c];
+                int hi = Math.min(n, (c + 1) * chunkSize);
+                for (int i = c * chunkSize; i < hi; i++) {
+                    int pos = offset[(int) ((from[i] ^ Long.MIN_VALUE) >>> s)
+                            & MASK]++;
+                    to[pos] = from[i];
+                    if (fromPayload != null) {
+                        toPayload[pos] = fromPayload[i];
+                    }
+                }
+            });
+            src = to;
+            dst = from;
+            srcPayload = toPayload;
+            dstPayload = fromPayload;
+        }
+        if (src != keys) {
+            System.arraycopy(src, 0, keys, 0, n);
+            if (payload != null) {
+                System.arraycopy(srcPayload, 0, payload, 0, n);
+            }
+        }
+    }
+}
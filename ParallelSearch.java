@@ -0,0 +1,364 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntPredicate;
+
+/**
+ * Searches a large text on several threads by splitting it into chunks.
+ *
+ * Chunk c owns the match starts in [lo, hi) and is searched as the window
+ * text[lo, hi + m - 1), so a match that starts near the end of the chunk
+ * and crosses into the next one is still seen whole. Neighboring windows
+ * overlap by m - 1 chars, which is one char too few to hold a match that
+ * starts at hi, so a boundary match is found by exactly one chunk. Each
+ * chunk also drops any match it does not own, in case an engine reports
+ * one anyway. Concatenating the chunks' results in chunk order gives the
+ * same ascending list as a sequential search.
+ *
+ * The per-chunk work is done either by a {@link CompiledPattern}, which
+ * always reports overlapping matches, or by any search with the signature
+ * of {@link StringSearching#kmp} that does, e.g.
+ * {@code StringSearching::rabinKarp}. A search that skips the pattern
+ * length after each match, like {@link StringSearching#boyerMoore}, cannot
+ * be split this way: every chunk would restart its skipping at its own
+ * start. To get its results, pass the compiled pattern with a gap of m, and
+ * the skipping is applied once to the concatenated matches, e.g.
+ * {@code search(CompiledPattern.boyerMoore(p), text, p.length())}.
+ *
+ * Windows are passed to the engine as CharSequence views, so the text is
+ * never copied.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class ParallelSearch {
+
+    /**
+     * A single-threaded search run on each chunk. It must be safe to call
+     * from several threads at once, which all of the searches in
+     * StringSearching are.
+     */
+    @FunctionalInterface
+    public interface SearchEngine {
+
+        /**
+         * Finds every occurrence of the pattern in the text, overlapping
+         * ones included.
+         *
+         * @param pattern the pattern you are searching for
+         * @param text the body of text where you search for the pattern
+         * @return list containing the starting index for each match found,
+         * in ascending order
+         */
+        List<Integer> search(CharSequence pattern, CharSequence text);
+    }
+
+    /**
+     * Text length below which the search runs sequentially.
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Number of chunks created per worker, so that chunks with many matches
+     * still keep every worker busy.
+     */
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    /**
+     * The search of one chunk.
+     */
+    @FunctionalInterface
+    private interface ChunkSearch {
+
+        /**
+         * Finds the matches that start in [lo, hi).
+         *
+         * @param lo the first match start owned by the chunk
+         * @param hi one past the last match start owned by the chunk
+         * @return the owned matches as absolute indices, in ascending order
+         */
+        List<Integer> search(int lo, int hi);
+    }
+
+    /**
+     * Prevents instantiation, all methods are static.
+     */
+    private ParallelSearch() {
+    }
+
+    /**
+     * Searches the text in parallel on the common ForkJoinPool.
+     *
+     * @throws IllegalArgumentException if any input is null or the pattern
+     * is of length 0
+     * @param pattern the pattern you are searching for
+     * @param text the body of text where you search for the pattern
+     * @param engine the search run on each chunk, which must report
+     * overlapping matches
+     * @return list containing the starting index for each match found, in
+     * ascending order
+     */
+    public static List<Integer> search(CharSequence pattern,
+                                       CharSequence text,
+                                       SearchEngine engine) {
+        return search(pattern, text, engine, ForkJoinPool.commonPool(),
+                ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Searches the text in parallel on the given executor, for example a
+     * dedicated ForkJoinPool.
+     *
+     * @throws IllegalArgumentException if any input is null, the pattern is
+     * of length 0, or workers is less than 1
+     * @param pattern the pattern you are searching for
+     * @param text the body of text where you search for the pattern
+     * @param engine the search run on each chunk, which must report
+     * overlapping matches
+     * @param executor runs the chunk searches
+     * @param workers the number of threads expected to run chunks, used to
+     * choose the number of chunks
+     * @return list containing the starting index for each match found, in
+     * ascending order
+     */
+    public static List<Integer> search(CharSequence pattern,
+                                       CharSequence text,
+                                       SearchEngine engine,
+                                       ExecutorService executor,
+                                       int workers) {
+        if (pattern == null || pattern.length() == 0 || text == null
+                || engine == null || executor == null || workers < 1) {
+            throw new IllegalArgumentException("One or more of your inputs"
+                    + " is invalid, please use a valid input next time.");
+        }
+        int n = text.length();
+        int m = pattern.length();
+        if (n < PARALLEL_THRESHOLD || workers < 2 || m > n) {
+            return engine.search(pattern, text);
+        }
+        return searchChunks(n, m, executor, workers,
+                (lo, hi) -> searchChunk(pattern, text, engine, lo, hi));
+    }
+
+    /**
+     * Searches the text in parallel on the common ForkJoinPool with a
+     * compiled pattern, keeping only matches that start at least gap chars
+     * after the previous one kept.
+     *
+     * @throws IllegalArgumentException if the pattern or text is null, or
+     * gap is less than 1
+     * @param pattern the compiled pattern you are searching for
+     * @param text the body of text where you search for the pattern
+     * @param gap the smallest distance between two reported matches, 1 to
+     * report overlapping matches, or the pattern length to report the
+     * matches of {@link StringSearching#boyerMoore}
+     * @return list containing the starting index for each match kept, in
+     * ascending order
+     */
+    public static List<Integer> search(CompiledPattern pattern,
+                                       CharSequence text, int gap) {
+        return search(pattern, text, gap, ForkJoinPool.commonPool(),
+                ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * Searches the text in parallel on the given executor with a compiled
+     * pattern. The chunks report every match, overlapping ones included, and
+     * the gap is applied once to the concatenated matches, so the result is
+     * the same as a sequential scan that skips gap chars after each match.
+     *
+     * @throws IllegalArgumentException if the pattern, text or executor is
+     * null, gap is less than 1, or workers is less than 1
+     * @param pattern the compiled pattern you are searching for
+     * @param text the body of text where you search for the pattern
+     * @param gap the smallest distance between two reported matches, 1 to
+     * report overlapping matches
+     * @param executor runs the chunk searches
+     * @param workers the number of threads expected to run chunks, used to
+     * choose the number of chunks
+     * @return list containing the starting index for each match kept, in
+     * ascending order
+     */
+    public static List<Integer> search(CompiledPattern pattern,
+                                       CharSequence text, int gap,
+                                       ExecutorService executor,
+                                       int workers) {
+        if (pattern == null || text == null || gap < 1 || executor == null
+                || workers < 1) {
+            throw new IllegalArgumentException("One or more of your inputs"
+                    + " is invalid, please use a valid input next time.");
+        }
+        int n = text.length();
+        int m = pattern.length();
+        List<Integer> matches = new ArrayList<>();
+        if (n < PARALLEL_THRESHOLD || workers < 2 || m > n) {
+            pattern.scan(text, 0, StringSearching.collector(matches, gap));
+            return matches;
+        }
+        List<Integer> all = searchChunks(n, m, executor, workers,
+                (lo, hi) -> searchChunk(pattern, text, lo, hi));
+        if (gap == 1) {
+            return all;
+        }
+        IntPredicate keep = StringSearching.collector(matches, gap);
+        for (int i : all) {
+            keep.test(i);
+        }
+        return matches;
+    }
+
+    /**
+     * Splits the possible match starts into chunks, runs the chunk searches
+     * on the executor and concatenates their results in chunk order.
+     *
+     * @param n the length of the text
+     * @param m the length of the pattern, at most n
+     * @param executor runs the chunk searches
+     * @param workers the number of threads expected to run chunks
+     * @param chunkSearch finds the matches of one chunk
+     * @return every match found, in ascending order
+     */
+    private static List<Integer> searchChunks(int n, int m,
+                                              ExecutorService executor,
+                                              int workers,
+                                              ChunkSearch chunkSearch) {
+        int chunks = workers * CHUNKS_PER_WORKER;
+        int chunkSize = Math.max(m, (n + chunks - 1) / chunks);
+        List<Callable<List<Integer>>> tasks = new ArrayList<>();
+        for (int lo = 0; lo <= n - m; lo += chunkSize) {
+            int start = lo;
+            int end = Math.min(n - m + 1, lo + chunkSize);
+            tasks.add(() -> chunkSearch.search(start, end));
+        }
+
+        List<Integer> matches = new ArrayList<>();
+        try {
+            for (Future<List<Integer>> chunk : executor.invokeAll(tasks)) {
+                matches.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while searching.",
+                    e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        return matches;
+    }
+
+    /**
+     * Searches the window of one chunk and keeps the matches it owns.
+     *
+     * @param pattern the pattern you are searching for
+     * @param text the whole text
+     * @param engine the search to run
+     * @param lo the first match start owned by the chunk
+     * @param hi one past the last match start owned by the chunk
+     * @return the owned matches as absolute indices, in ascending order
+     */
+    private static List<Integer> searchChunk(CharSequence pattern,
+                                             CharSequence text,
+                                             SearchEngine engine,
+                                             int lo, int hi) {
+        int windowEnd = Math.min(text.length(), hi + pattern.length() - 1);
+        List<Integer> found = engine.search(pattern,
+                new TextWindow(text, lo, windowEnd - lo));
+        List<Integer> owned = new ArrayList<>(found.size());
+        for (int i : found) {
+            if (lo + i < hi) {
+                owned.add(lo + i);
+            }
+        }
+        return owned;
+    }
+
+    /**
+     * Scans the window of one chunk with a compiled pattern and keeps every
+     * match it owns, stopping at the first one it does not.
+     *
+     * @param pattern the compiled pattern you are searching for
+     * @param text the whole text
+     * @param lo the first match start owned by the chunk
+     * @param hi one past the last match start owned by the chunk
+     * @return the owned matches as absolute indices, in ascending order
+     */
+    private static List<Integer> searchChunk(CompiledPattern pattern,
+                                             CharSequence text,
+                                             int lo, int hi) {
+        int windowEnd = Math.min(text.length(), hi + pattern.length() - 1);
+        List<Integer> owned = new ArrayList<>();
+        pattern.scan(new TextWindow(text, lo, windowEnd - lo), 0, i -> {
+            if (lo + i >= hi) {
+                return false;
+            }
+            owned.add(lo + i);
+            return true;
+        });
+        return owned;
+    }
+
+    /**
+     * Read-only view of a range of a CharSequence. Used instead of
+     * subSequence, which not every CharSequence supports and which may copy.
+     */
+    static final class TextWindow implements CharSequence {
+        private final CharSequence text;
+        private final int offset;
+        private final int length;
+
+        /**
+         * Creates a view of text[offset, offset + length).
+         *
+         * @param text the text to view
+         * @param offset the index of the first char
+         * @param length the number of chars
+         */
+        TextWindow(CharSequence text, int offset, int length) {
+            this.text = text;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index
+                        + " is out of bounds for length " + length);
+            }
+            return text.charAt(offset + index);
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("Range [" + start + ", "
+                        + end + ") is out of bounds for length " + length);
+            }
+            return new TextWindow(text, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(length);
+            for (int i = 0; i < length; i++) {
+                sb.append(text.charAt(offset + i));
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded least recently used cache from pattern strings to their compiled
+ * form, so that patterns which are searched for again and again are only
+ * preprocessed once.
+ *
+ * Example: {@code new PatternCache(512, CompiledPattern::boyerMoore)} keeps
+ * the 512 most recently used patterns compiled for Boyer-Moore.
+ *
+ * It is thread-safe. Lookups take a short lock; compiling a missing pattern
+ * happens outside of it, so a slow compile never blocks other lookups. Two
+ * threads missing on the same pattern at once may both compile it, in which
+ * case both get the instance that was cached first.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public class PatternCache {
+
+    private final int capacity;
+    private final Function<? super String, ? extends CompiledPattern> compiler;
+    private final Map<String, CompiledPattern> cache;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @throws IllegalArgumentException if capacity is less than 1 or the
+     * compiler is null
+     * @param capacity the maximum number of compiled patterns to keep
+     * @param compiler compiles a pattern that is not cached, such as
+     * {@code CompiledPattern::kmp}
+     */
+    public PatternCache(int capacity,
+                        Function<? super String, ? extends CompiledPattern>
+                                compiler) {
+        if (capacity < 1 || compiler == null) {
+            throw new IllegalArgumentException("Capacity must be at least 1"
+                    + " and the compiler must not be null.");
+        }
+        this.capacity = capacity;
+        this.compiler = compiler;
+        this.cache = new LinkedHashMap<String, CompiledPattern>(16, 0.75f,
+                true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<String, CompiledPattern> eldest) {
+                return size() > PatternCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled form of a pattern, compiling and caching it if it
+     * is not cached yet. The least recently used pattern is evicted when the
+     * cache is full.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to look up
+     * @return the compiled pattern
+     */
+    public CompiledPattern get(CharSequence pattern) {
+        if (pattern == null || pattern.length() == 0) {
+            throw new IllegalArgumentException("Input pattern is null or"
+                    + " empty, please enter a valid input next time.");
+        }
+        String key = asString(pattern);
+        CompiledPattern compiled;
+        synchronized (cache) {
+            compiled = cache.get(key);
+        }
+        if (compiled != null) {
+            return compiled;
+        }
+        compiled = compiler.apply(key);
+        synchronized (cache) {
+            CompiledPattern raced = cache.putIfAbsent(key, compiled);
+            return raced != null ? raced : compiled;
+        }
+    }
+
+    /**
+     * Copies a pattern into a String key. Reads the chars one by one rather
+     * than calling toString, which not every CharSequence implements as its
+     * contents.
+     *
+     * @param pattern the pattern
+     * @return the pattern as a String
+     */
+    private static String asString(CharSequence pattern) {
+        if (pattern instanceof String) {
+            return (String) pattern;
+        }
+        StringBuilder sb = new StringBuilder(pattern.length());
+        for (int i = 0; i < pattern.length(); i++) {
+            sb.append(pattern.charAt(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the number of cached patterns.
+     *
+     * @return the number of cached patterns
+     */
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * Removes every cached pattern.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+}
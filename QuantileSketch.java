@@ -0,0 +1,389 @@
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Mergeable streaming quantile sketch for double values, based on the KLL
+ * sketch of Karnin, Lang and Liberty.
+ *
+ * Values are kept in a stack of compactors. Level h holds items that each
+ * stand for 2^h original values, and lower levels get geometrically less
+ * space (a factor of 2/3 per level below the top). When the sketch is full
+ * the lowest full level is sorted, and every other item, starting at a
+ * random offset, is promoted to the next level while the rest are dropped.
+ *
+ * With parameter k the normalized rank error of a query is roughly 1.7 / k
+ * with high probability (about 0.85% for the default k of 200). Memory
+ * stays at O(k) items no matter how many values are added.
+ *
+ * Instances are not thread-safe. Build one sketch per thread or shard and
+ * combine them with {@link #merge(QuantileSketch)}.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public class QuantileSketch {
+
+    /**
+     * Default accuracy parameter.
+     */
+    public static final int DEFAULT_K = 200;
+
+    /**
+     * Approximate constant relating k to the normalized rank error.
+     */
+    private static final double ERROR_CONSTANT = 1.7;
+
+    /**
+     * Factor by which each level below the top shrinks in capacity.
+     */
+    private static final double CAPACITY_DECAY = 2.0 / 3.0;
+
+    /**
+     * Smallest capacity any level can have.
+     */
+    private static final int MIN_CAPACITY = 2;
+
+    private final int k;
+    private final Random rand;
+    private double[][] levels;
+    private int[] sizes;
+    private int retained;
+    private int maxRetained;
+    private long count;
+    private double min;
+    private double max;
+
+    /**
+     * Creates an empty sketch with the default k.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Creates an empty sketch with the given accuracy parameter.
+     *
+     * @throws IllegalArgumentException if k is less than 8
+     * @param k the accuracy parameter; larger is more accurate and uses
+     * proportionally more memory
+     */
+    public QuantileSketch(int k) {
+        this(k, new Random());
+    }
+
+    /**
+     * Creates an empty sketch with the given accuracy parameter and source of
+     * randomness for compactions. Passing a seeded Random makes the sketch
+     * deterministic.
+     *
+     * @throws IllegalArgumentException if k is less than 8 or rand is null
+     * @param k the accuracy parameter
+     * @param rand the Random object used to choose compaction offsets
+     */
+    public QuantileSketch(int k, Random rand) {
+        if (k < 8 || rand == null) {
+            throw new IllegalArgumentException("k must be at least 8 and rand"
+                    + " must not be null.");
+        }
+        this.k = k;
+        this.rand = rand;
+        this.levels = new double[][] {new double[k]};
+        this.sizes = new int[1];
+        this.maxRetained = k;
+        this.min = Double.NaN;
+        this.max = Double.NaN;
+    }
+
+    /**
+     * Creates an empty sketch sized so that the normalized rank error of its
+     * queries is about epsilon.
+     *
+     * @throws IllegalArgumentException if epsilon is not in (0, 1)
+     * @param epsilon the desired rank error, e.g. 0.01 for 1%
+     * @return the new sketch
+     */
+    public static QuantileSketch withError(double epsilon) {
+        if (!(epsilon > 0 && epsilon < 1)) {
+            throw new IllegalArgumentException("Error " + epsilon + " is not"
+                    + " within the range (0, 1).");
+        }
+        return new QuantileSketch(Math.max(8,
+                (int) Math.ceil(ERROR_CONSTANT / epsilon)));
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @throws IllegalArgumentException if value is NaN
+     * @param value the value to add
+     */
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            throw new IllegalArgumentException("Cannot add NaN to a sketch.");
+        }
+        if (count == 0) {
+            min = value;
+            max = value;
+        } else {
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        count++;
+        append(0, value);
+        while (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Merges another sketch into this one. Afterwards this sketch summarizes
+     * both streams, with the error bound of the smaller k.
+     *
+     * @throws IllegalArgumentException if other is null
+     * @param other the sketch to merge into this one, which is not modified
+     */
+    public void merge(QuantileSketch other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot merge a null sketch.");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        double[][] otherLevels = other.levels;
+        int[] otherSizes = other.sizes;
+        if (other == this) {
+            // Appending grows the levels being read, so read a snapshot
+            otherSizes = sizes.clone();
+            otherLevels = new double[levels.length][];
+            for (int h = 0; h < levels.length; h++) {
+                otherLevels[h] = Arrays.copyOf(levels[h], sizes[h]);
+            }
+        }
+        while (levels.length < otherLevels.length) {
+            grow();
+        }
+        for (int h = 0; h < otherLevels.length; h++) {
+            for (int i = 0; i < otherSizes[h]; i++) {
+                append(h, otherLevels[h][i]);
+            }
+        }
+        min = count == 0 ? other.min : Math.min(min, other.min);
+        max = count == 0 ? other.max : Math.max(max, other.max);
+        count += other.count;
+        while (retained >= maxRetained) {
+            compress();
+        }
+    }
+
+    /**
+     * Gets the number of values added to this sketch, including values added
+     * to sketches merged into it.
+     *
+     * @return the number of values summarized
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of items the sketch currently stores.
+     *
+     * @return the number of retained items
+     */
+    public int getRetained() {
+        return retained;
+    }
+
+    /**
+     * Estimates the value at the given quantile. The smallest and largest
+     * values seen are tracked exactly and returned for 0 and 1.
+     *
+     * @throws IllegalArgumentException if q is not in [0, 1]
+     * @throws IllegalStateException if the sketch is empty
+     * @param q the quantile, e.g. 0.99 for the 99th percentile
+     * @return the estimated value at quantile q
+     */
+    public double quantile(double q) {
+        return quantiles(new double[] {q})[0];
+    }
+
+    /**
+     * Estimates the values at several quantiles with a single sort of the
+     * retained items.
+     *
+     * @throws IllegalArgumentException if qs is null or any q is not in
+     * [0, 1]
+     * @throws IllegalStateException if the sketch is empty
+     * @param qs the quantiles to estimate, in any order
+     * @return the estimated value for each quantile, in the order of qs
+     */
+    public double[] quantiles(double[] qs) {
+        if (qs == null) {
+            throw new IllegalArgumentException("The input quantiles are null,"
+                    + " please use a valid input next time.");
+        }
+        for (double q : qs) {
+            if (!(q >= 0 && q <= 1)) {
+                throw new IllegalArgumentException("Quantile " + q + " is not"
+                        + " within the range [0, 1].");
+            }
+        }
+        if (count == 0) {
+            throw new IllegalStateException("The sketch is empty.");
+        }
+        double[] values = new double[retained];
+        long[] weights = new long[retained];
+        sortedItems(values, weights);
+        double[] result = new double[qs.length];
+        for (int i = 0; i < qs.length; i++) {
+            if (qs[i] == 0) {
+                result[i] = min;
+            } else if (qs[i] == 1) {
+                result[i] = max;
+            } else {
+                long target = (long) Math.ceil(qs[i] * count);
+                long cumulative = 0;
+                int j = 0;
+                while (j < values.length - 1
+                        && cumulative + weights[j] < target) {
+                    cumulative += weights[j];
+                    j++;
+                }
+                result[i] = values[j];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the fraction of values added that are less than or equal to
+     * the given value.
+     *
+     * @param value the value to rank
+     * @return the estimated normalized rank in [0, 1], or 0 if empty
+     */
+    public double rank(double value) {
+        if (count == 0) {
+            return 0;
+        }
+        long weight = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                if (levels[h][i] <= value) {
+                    weight += 1L << h;
+                }
+            }
+        }
+        return (double) weight / count;
+    }
+
+    /**
+     * Fills values and weights with every retained item sorted by value.
+     *
+     * @param values receives the item values in ascending order
+     * @param weights receives the weight of each item
+     */
+    private void sortedItems(double[] values, long[] weights) {
+        int n = 0;
+        for (int h = 0; h < levels.length; h++) {
+            for (int i = 0; i < sizes[h]; i++) {
+                values[n] = levels[h][i];
+                weights[n] = 1L << h;
+                n++;
+            }
+        }
+        // Sort an index permutation by value to carry the weights along
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = sortableBits(values[i]);
+        }
+        int[] order = ParallelRadixSort.sortedOrder(keys);
+        double[] sortedValues = new double[n];
+        long[] sortedWeights = new long[n];
+        for (int i = 0; i < n; i++) {
+            sortedValues[i] = values[order[i]];
+            sortedWeights[i] = weights[order[i]];
+        }
+        System.arraycopy(sortedValues, 0, values, 0, n);
+        System.arraycopy(sortedWeights, 0, weights, 0, n);
+    }
+
+    /**
+     * Maps a double to a long whose signed order matches the numeric order
+     * of the double.
+     *
+     * @param value the value to map
+     * @return the order-preserving bits of value
+     */
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Computes the capacity of a level given the current number of levels.
+     *
+     * @param level the level index
+     * @return the number of items the level may hold before compaction
+     */
+    private int capacity(int level) {
+        int depth = levels.length - 1 - level;
+        return Math.max(MIN_CAPACITY,
+                (int) Math.ceil(k * Math.pow(CAPACITY_DECAY, depth)));
+    }
+
+    /**
+     * Appends an item to a level, growing that level's array if needed.
+     *
+     * @param level the level to append to
+     * @param value the item to append
+     */
+    private void append(int level, double value) {
+        if (sizes[level] == levels[level].length) {
+            levels[level] = Arrays.copyOf(levels[level],
+                    Math.max(MIN_CAPACITY, levels[level].length * 2));
+        }
+        levels[level][sizes[level]++] = value;
+        retained++;
+    }
+
+    /**
+     * Adds an empty level on top and recomputes the total capacity.
+     */
+    private void grow() {
+        int height = levels.length;
+        levels = Arrays.copyOf(levels, height + 1);
+        sizes = Arrays.copyOf(sizes, height + 1);
+        levels[height] = new double[MIN_CAPACITY];
+        maxRetained = 0;
+        for (int h = 0; h <= height; h++) {
+            maxRetained += capacity(h);
+        }
+    }
+
+    /**
+     * Compacts the lowest level that is at capacity, promoting half of its
+     * items to the level above.
+     */
+    private void compress() {
+        for (int h = 0; h < levels.length; h++) {
+            if (sizes[h] >= capacity(h)) {
+                if (h + 1 == levels.length) {
+                    grow();
+                }
+                double[] level = levels[h];
+                int size = sizes[h];
+                Arrays.sort(level, 0, size);
+                // An odd item out stays behind at this level
+                int keep = size % 2;
+                int offset = rand.nextBoolean() ? 1 : 0;
+                for (int i = keep + offset; i < size; i += 2) {
+                    append(h + 1, level[i]);
+                }
+                retained -= size - keep;
+                sizes[h] = keep;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntPredicate;
+
+/**
+ * A pattern compiled for Rabin-Karp searching. The pattern hash and
+ * BASE^(m - 1), which rolling the hash needs, are computed once and kept as
+ * primitives in the instance, so searching neither allocates nor touches
+ * shared state.
+ *
+ * Hashes are polynomials in a random base taken modulo the Mersenne prime
+ * 2^61 - 1. Two different windows collide with probability about m / 2^61,
+ * so chars are almost only compared for real matches, where the 32 bit
+ * overflowing hash of {@link StringSearching#generateHash} produces
+ * spurious hits regularly on long texts. The base is drawn once per run,
+ * which keeps crafted inputs from forcing collisions.
+ *
+ * Instances are immutable and can be shared freely between threads.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class RabinKarpPattern extends CompiledPattern {
+
+    /**
+     * The Mersenne prime 2^61 - 1 all hashes are taken modulo.
+     */
+    private static final long MODULUS = (1L << 61) - 1;
+
+    /**
+     * Base of the hash polynomial, larger than any char so that distinct
+     * chars never share a digit.
+     */
+    private static final long BASE = ThreadLocalRandom.current()
+            .nextLong(1L << 16, MODULUS);
+
+    private final long patternHash;
+    private final long highPower;
+
+    /**
+     * Compiles the pattern.
+     *
+     * Have a worst case running time of:
+     *  O(m)
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     */
+    public RabinKarpPattern(CharSequence pattern) {
+        super(pattern);
+        long power = 1;
+        long hash = 0;
+        for (int i = 0; i < this.pattern.length; i++) {
+            if (i > 0) {
+                power = multiply(power, BASE);
+            }
+            hash = roll(hash, this.pattern[i]);
+        }
+        highPower = power;
+        patternHash = hash;
+    }
+
+    /**
+     * Multiplies two residues modulo 2^61 - 1. The 122 bit product is split
+     * at bit 61, and since 2^61 is 1 modulo the prime, the high part is
+     * simply added to the low part.
+     *
+     * @param a a value in [0, 2^61 - 1)
+     * @param b a value in [0, 2^61 - 1)
+     * @return a * b mod 2^61 - 1
+     */
+    private static long multiply(long a, long b) {
+        long low = a * b;
+        long high = Math.multiplyHigh(a, b);
+        return reduce((low & MODULUS) + ((high << 3) | (low >>> 61)));
+    }
+
+    /**
+     * Reduces a value below 2 * (2^61 - 1) into [0, 2^61 - 1).
+     *
+     * @param x the value to reduce
+     * @return x mod 2^61 - 1
+     */
+    private static long reduce(long x) {
+        return x >= MODULUS ? x - MODULUS : x;
+    }
+
+    /**
+     * Appends a char to a hash.
+     *
+     * @param hash the hash of a window
+     * @param c the char to append
+     * @return the hash of the window followed by c
+     */
+    private static long roll(long hash, char c) {
+        return reduce(multiply(hash, BASE) + c);
+    }
+
+    /**
+     * Scans the text with a rolling hash, comparing chars only where the
+     * hashes are equal.
+     *
+     * Have a worst case running time of:
+     *  O(mn), expected O(m + n)
+     *
+     * @param text the body of text to search
+     * @param from the first index a match may start at
+     * @param onMatch receives the starting index of each match
+     * @return true if the whole text was scanned
+     */
+    @Override
+    boolean scan(CharSequence text, int from, IntPredicate onMatch) {
+        int m = pattern.length;
+        int n = text.length();
+        if (n - from < m) {
+            return true;
+        }
+        long textHash = 0;
+        for (int i = from; i < from + m; i++) {
+            textHash = roll(textHash, text.charAt(i));
+        }
+        for (int i = from; ; i++) {
+            if (textHash == patternHash && matchesAt(text, i)
+                    && !onMatch.test(i)) {
+                return false;
+            }
+            if (i + m >= n) {
+                return true;
+            }
+            long removed = multiply(text.charAt(i), highPower);
+            textHash = roll(reduce(textHash + MODULUS - removed),
+                    text.charAt(i + m));
+        }
+    }
+
+    /**
+     * Scans the text like {@link #scan(CharSequence, int, IntPredicate)},
+     * recording its work.
+     *
+     * Have a worst case running time of:
+     *  O(mn), expected O(m + n)
+     *
+     * @param text the body of text to search
+     * @param from the first index a match may start at
+     * @param onMatch receives the starting index of each match
+     * @param metrics receives the work done
+     * @return true if the whole text was scanned
+     */
+    @Override
+    boolean scan(CharSequence text, int from, IntPredicate onMatch,
+                 SearchMetrics metrics) {
+        int m = pattern.length;
+        int n = text.length();
+        if (n - from < m) {
+            return true;
+        }
+        long textHash = 0;
+        for (int i = from; i < from + m; i++) {
+            textHash = roll(textHash, text.charAt(i));
+        }
+        for (int i = from; ; i++) {
+            if (textHash == patternHash) {
+                int matched = matchedAt(text, i);
+                metrics.compared(Math.min(matched + 1, m));
+                if (matched == m) {
+                    if (!onMatch.test(i)) {
+                        return false;
+                    }
+                } else {
+                    metrics.spuriousHit();
+                }
+            }
+            if (i + m >= n) {
+                return true;
+            }
+            metrics.shifted(1);
+            long removed = multiply(text.charAt(i), highPower);
+            textHash = roll(reduce(textHash + MODULUS - removed),
+                    text.charAt(i + m));
+        }
+    }
+
+    /**
+     * Compares the pattern with the text at one position.
+     *
+     * @param text the body of text to search
+     * @param i the starting index in the text
+     * @return true if the pattern occurs at i
+     */
+    private boolean matchesAt(CharSequence text, int i) {
+        for (int j = 0; j < pattern.length; j++) {
+            if (text.charAt(i + j) != pattern[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts how many pattern chars match the text at one position before
+     * the first mismatch.
+     *
+     * @param text the body of text to search
+     * @param i the starting index in the text
+     * @return the length of the matching prefix, m if the pattern occurs at i
+     */
+    private int matchedAt(CharSequence text, int i) {
+        int j = 0;
+        while (j < pattern.length && text.charAt(i + j) == pattern[j]) {
+            j++;
+        }
+        return j;
+    }
+
+    @Override
+    String algorithm() {
+        return "rabinKarp";
+    }
+}
@@ -0,0 +1,39 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Converts fixed-width records to and from bytes for ExternalSort.
+ *
+ * Every record must encode to exactly {@link #recordSize()} bytes, so a file
+ * of records can be split and read back at any record boundary.
+ *
+ * @param <T> the record type
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public interface RecordCodec<T> {
+
+    /**
+     * Gets the number of bytes every encoded record takes.
+     *
+     * @return the record size in bytes, at least 1
+     */
+    int recordSize();
+
+    /**
+     * Writes one record at the buffer's position, advancing it by exactly
+     * {@link #recordSize()} bytes.
+     *
+     * @param record the record to encode
+     * @param out the buffer to write into
+     */
+    void encode(T record, ByteBuffer out);
+
+    /**
+     * Reads one record at the buffer's position, advancing it by exactly
+     * {@link #recordSize()} bytes.
+     *
+     * @param in the buffer to read from
+     * @return the decoded record
+     */
+    T decode(ByteBuffer in);
+}
@@ -0,0 +1,301 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel sample sort for object arrays, aimed at comparators that are
+ * expensive to call.
+ *
+ * The sort works in four steps:
+ *
+ *  1. A random oversample of the input is sorted and evenly spaced elements
+ *     of it are taken as splitters, dividing the key space into buckets of
+ *     about equal size.
+ *  2. Each worker classifies a contiguous chunk of the input by binary
+ *     searching the splitters, which costs log2(buckets) comparisons per
+ *     element, and counts how many of its elements fall in each bucket.
+ *  3. A prefix sum over the counts (bucket-major, then chunk order) gives
+ *     each worker its own output offsets, and all workers scatter in
+ *     parallel, keeping the input order inside every bucket.
+ *  4. The buckets are sorted independently in parallel.
+ *
+ * In stable mode the buckets are sorted with the buffered merge sort, so
+ * equal elements keep their input order. Otherwise a three-way quick sort is
+ * used, which needs no extra pass and finishes buckets full of equal keys in
+ * linear time.
+ *
+ * For comparators that have to parse or build composite keys, sortByKey
+ * extracts a key from every element once up front and sorts by the keys
+ * (decorate-sort-undecorate), so the extraction is never repeated.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public class SampleSort {
+
+    /**
+     * Array length below which the sort runs sequentially.
+     */
+    public static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+
+    /**
+     * Number of samples drawn per bucket when choosing splitters.
+     */
+    private static final int OVERSAMPLING = 32;
+
+    /**
+     * Number of buckets created per worker, so that uneven buckets still
+     * keep every worker busy.
+     */
+    private static final int BUCKETS_PER_WORKER = 4;
+
+    /**
+     * Prevents instantiation, all methods are static.
+     */
+    private SampleSort() {
+    }
+
+    /**
+     * Sorts the array in parallel with sample sort.
+     *
+     * Have a worst case running time of:
+     *  O(n log n)
+     *
+     * @throws IllegalArgumentException if the array or comparator is null
+     * @param <T> data type to sort
+     * @param arr the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @param stable true if equal elements must keep their relative order
+     */
+    public static <T> void sort(T[] arr, Comparator<T> comparator,
+                                boolean stable) {
+        if (arr == null || comparator == null) {
+            throw new IllegalArgumentException("The input array or comparator"
+                    + " is null, please use a valid input next time.");
+        }
+        sampleSort(arr, comparator, stable);
+    }
+
+    /**
+     * Sorts the array in parallel by a key extracted from each element.
+     * The key extractor is called exactly once per element, in parallel, and
+     * only the keys are compared afterwards.
+     *
+     * Example: {@code sortByKey(lines, SampleSort::parseTimestamp,
+     * Long::compare, true)} parses every line once instead of on every
+     * comparison.
+     *
+     * @throws IllegalArgumentException if any input is null
+     * @param <T> data type to sort
+     * @param <K> the key type
+     * @param arr the array to be sorted
+     * @param key extracts the sort key of an element
+     * @param keyComparator the Comparator used to compare keys
+     * @param stable true if elements with equal keys must keep their
+     * relative order
+     */
+    public static <T, K> void sortByKey(T[] arr,
+                                        Function<? super T, ? extends K> key,
+                                        Comparator<? super K> keyComparator,
+                                        boolean stable) {
+        if (arr == null || key == null || keyComparator == null) {
+            throw new IllegalArgumentException("The input array, key"
+                    + " extractor or comparator is null, please use a valid"
+                    + " input next time.");
+        }
+        // A generic array cannot be created, and pairs never leaves here
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Keyed<T, K>[] pairs = (Keyed<T, K>[]) new Keyed[arr.length];
+        forEach(arr.length, i -> pairs[i] = new Keyed<>(key.apply(arr[i]),
+                arr[i]));
+        sampleSort(pairs, (a, b) -> keyComparator.compare(a.key, b.key),
+                stable);
+        forEach(arr.length, i -> arr[i] = pairs[i].value);
+    }
+
+    /**
+     * Element paired with its precomputed sort key.
+     *
+     * @param <T> data type to sort
+     * @param <K> the key type
+     */
+    private static final class Keyed<T, K> {
+        private final K key;
+        private final T value;
+
+        /**
+         * Pairs a key with its element.
+         *
+         * @param key the extracted key
+         * @param value the element
+         */
+        Keyed(K key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Runs body for every index in [0, n), in parallel for large n.
+     *
+     * @param n the number of indices
+     * @param body the work to do for one index
+     */
+    private static void forEach(int n, IntConsumer body) {
+        if (n < SEQUENTIAL_THRESHOLD) {
+            for (int i = 0; i < n; i++) {
+                body.accept(i);
+            }
+        } else {
+            IntStream.range(0, n).parallel().forEach(body);
+        }
+    }
+
+    /**
+     * Sorts a range sequentially with the sort matching the stability mode.
+     *
+     * @param arr the array containing the range
+     * @param scratch an array holding the same elements in the range, or null
+     * to allocate one when needed
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     * @param comparator the Comparator used to compare the data
+     * @param stable true if equal elements must keep their relative order
+     * @param <T> data type to sort
+     */
+    private static <T> void sortRange(T[] arr, T[] scratch, int lo, int hi,
+                                      Comparator<T> comparator,
+                                      boolean stable) {
+        if (hi - lo < 2) {
+            return;
+        }
+        if (stable) {
+            if (scratch == null) {
+                scratch = Arrays.copyOf(arr, arr.length);
+            }
+            Sorting.pingPongSort(scratch, arr, lo, hi, comparator);
+        } else {
+            Sorting.quickSort(arr, lo, hi, comparator);
+        }
+    }
+
+    /**
+     * Performs the sample sort described in the class comment.
+     *
+     * @param arr the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @param stable true if equal elements must keep their relative order
+     * @param <T> data type to sort
+     */
+    private static <T> void sampleSort(T[] arr, Comparator<T> comparator,
+                                       boolean stable) {
+        int n = arr.length;
+        int workers = ForkJoinPool.getCommonPoolParallelism();
+        if (n < SEQUENTIAL_THRESHOLD || workers < 2) {
+            sortRange(arr, null, 0, n, comparator, stable);
+            return;
+        }
+        int buckets = Math.min(workers * BUCKETS_PER_WORKER,
+                n / OVERSAMPLING);
+        T[] splitters = chooseSplitters(arr, buckets, comparator);
+
+        // Classify every element and count bucket sizes per chunk
+        int chunks = workers;
+        int chunkSize = (n + chunks - 1) / chunks;
+        int[] bucketOf = new int[n];
+        int[][] counts = new int[chunks][buckets];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int hi = Math.min(n, (c + 1) * chunkSize);
+            for (int i = c * chunkSize; i < hi; i++) {
+                int b = bucketOf(arr[i], splitters, comparator);
+                bucketOf[i] = b;
+                counts[c][b]++;
+            }
+        });
+
+        // Bucket-major prefix sum so each chunk writes after earlier chunks
+        int[] bucketStart = new int[buckets + 1];
+        int sum = 0;
+        for (int b = 0; b < buckets; b++) {
+            bucketStart[b] = sum;
+            for (int c = 0; c < chunks; c++) {
+                int count = counts[c][b];
+                counts[c][b] = sum;
+                sum += count;
+            }
+        }
+        bucketStart[buckets] = n;
+
+        // Only ever holds elements of arr, and never leaves this method
+        @SuppressWarnings("unchecked")
+        T[] scratch = (T[]) new Object[n];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int[] offset = counts[c];
+            int hi = Math.min(n, (c + 1) * chunkSize);
+            for (int i = c * chunkSize; i < hi; i++) {
+                scratch[offset[bucketOf[i]]++] = arr[i];
+            }
+        });
+
+        // The scattered copy is the workspace for sorting back into arr
+        IntStream.range(0, buckets).parallel().forEach(b -> {
+            int lo = bucketStart[b];
+            int hi = bucketStart[b + 1];
+            System.arraycopy(scratch, lo, arr, lo, hi - lo);
+            sortRange(arr, scratch, lo, hi, comparator, stable);
+        });
+    }
+
+    /**
+     * Chooses buckets - 1 splitters from a sorted random oversample.
+     *
+     * @param arr the array being sorted
+     * @param buckets the number of buckets
+     * @param comparator the Comparator used to compare the data in arr
+     * @param <T> data type to sort
+     * @return the splitters in ascending order
+     */
+    private static <T> T[] chooseSplitters(T[] arr, int buckets,
+                                           Comparator<T> comparator) {
+        Random rand = new Random(arr.length);
+        T[] sample = Arrays.copyOf(arr, buckets * OVERSAMPLING);
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = arr[rand.nextInt(arr.length)];
+        }
+        Sorting.bufferedMergeSort(sample, comparator);
+        T[] splitters = Arrays.copyOf(sample, buckets - 1);
+        for (int i = 0; i < splitters.length; i++) {
+            splitters[i] = sample[(i + 1) * OVERSAMPLING];
+        }
+        return splitters;
+    }
+
+    /**
+     * Finds the bucket of an element: the number of splitters that are less
+     * than or equal to it. Equal elements therefore always share a bucket.
+     *
+     * @param data the element to classify
+     * @param splitters the splitters in ascending order
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to sort
+     * @return the bucket index
+     */
+    private static <T> int bucketOf(T data, T[] splitters,
+                                    Comparator<T> comparator) {
+        int lo = 0;
+        int hi = splitters.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(splitters[mid], data) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
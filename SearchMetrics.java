@@ -0,0 +1,198 @@
+/**
+ * What one call of a string search did: how many chars it compared, how far
+ * it shifted the pattern along the text, how many Rabin-Karp hash hits
+ * turned out to be spurious, how many text chars it read and how long it
+ * took.
+ *
+ * The search engines fill in a SearchMetrics only when one is passed to
+ * them, which {@link StringSearching} does only while a
+ * {@link SearchMetricsListener} is installed; they then run a counting copy
+ * of their search loop, so the plain loop pays nothing for metrics. The
+ * counters are plain fields updated by the searching thread; the finished
+ * object is handed to the listener and not changed afterwards.
+ *
+ * Comparisons count pattern chars compared with text chars. Shifts count
+ * how often the alignment of the pattern moved forward, and the shift
+ * distance is how far it moved in total, so a Boyer-Moore search that skips
+ * well has few shifts with a large average distance, and a KMP or
+ * Rabin-Karp search has close to n shifts of about 1.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class SearchMetrics {
+
+    private final String algorithm;
+    private final int patternLength;
+    private final int textLength;
+    private long comparisons;
+    private long shifts;
+    private long shiftDistance;
+    private long spuriousHits;
+    private long charsRead;
+    private long matches;
+    private long nanos;
+
+    /**
+     * Creates empty metrics for one search.
+     *
+     * @param algorithm the name of the algorithm, e.g. "kmp"
+     * @param patternLength the length of the pattern
+     * @param textLength the length of the text
+     */
+    SearchMetrics(String algorithm, int patternLength, int textLength) {
+        this.algorithm = algorithm;
+        this.patternLength = patternLength;
+        this.textLength = textLength;
+    }
+
+    /**
+     * Records char comparisons.
+     *
+     * @param count the number of comparisons
+     */
+    void compared(int count) {
+        comparisons += count;
+    }
+
+    /**
+     * Records one move of the pattern along the text.
+     *
+     * @param distance how many positions the pattern moved
+     */
+    void shifted(int distance) {
+        shifts++;
+        shiftDistance += distance;
+    }
+
+    /**
+     * Records a window whose hash equaled the pattern hash but whose chars
+     * did not match.
+     */
+    void spuriousHit() {
+        spuriousHits++;
+    }
+
+    /**
+     * Records the totals known once the search is over.
+     *
+     * @param read the number of text chars read
+     * @param found the number of matches
+     * @param elapsed the wall clock time of the search in nanoseconds
+     */
+    void finish(long read, long found, long elapsed) {
+        charsRead = read;
+        matches = found;
+        nanos = elapsed;
+    }
+
+    /**
+     * Gets the name of the algorithm that ran.
+     *
+     * @return the algorithm, e.g. "kmp", "boyerMoore" or "rabinKarp"
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Gets the length of the pattern.
+     *
+     * @return the pattern length
+     */
+    public int getPatternLength() {
+        return patternLength;
+    }
+
+    /**
+     * Gets the length of the text.
+     *
+     * @return the text length
+     */
+    public int getTextLength() {
+        return textLength;
+    }
+
+    /**
+     * Gets the number of pattern chars compared with text chars.
+     *
+     * @return the number of comparisons
+     */
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * Gets the number of times the pattern moved along the text.
+     *
+     * @return the number of shifts
+     */
+    public long getShifts() {
+        return shifts;
+    }
+
+    /**
+     * Gets the total distance the pattern moved along the text.
+     *
+     * @return the sum of all shift distances
+     */
+    public long getShiftDistance() {
+        return shiftDistance;
+    }
+
+    /**
+     * Gets the average distance of a shift.
+     *
+     * @return the average shift distance, or 0 if there were no shifts
+     */
+    public double getAverageShift() {
+        return shifts == 0 ? 0 : (double) shiftDistance / shifts;
+    }
+
+    /**
+     * Gets the number of Rabin-Karp hash hits that were not matches. Always
+     * 0 for the other algorithms.
+     *
+     * @return the number of spurious hash hits
+     */
+    public long getSpuriousHits() {
+        return spuriousHits;
+    }
+
+    /**
+     * Gets the number of text chars read, counting a char again each time
+     * it is read again.
+     *
+     * @return the number of charAt calls on the text
+     */
+    public long getCharsRead() {
+        return charsRead;
+    }
+
+    /**
+     * Gets the number of matches found.
+     *
+     * @return the number of matches
+     */
+    public long getMatches() {
+        return matches;
+    }
+
+    /**
+     * Gets the wall clock time of the search.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + "[m=" + patternLength + ", n=" + textLength
+                + ", comparisons=" + comparisons + ", shifts=" + shifts
+                + ", shiftDistance=" + shiftDistance + ", spuriousHits="
+                + spuriousHits + ", charsRead=" + charsRead + ", matches="
+                + matches + ", nanos=" + nanos + "]";
+    }
+}
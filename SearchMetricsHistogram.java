@@ -0,0 +1,193 @@
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A {@link SearchMetricsListener} that summarizes searches per algorithm.
+ * For each algorithm it counts the calls, matches and spurious hash hits,
+ * and keeps a {@link QuantileSketch} of each per-call ratio that makes
+ * searches of different sizes comparable:
+ *
+ *  - nanoseconds per text char
+ *  - comparisons per text char
+ *  - chars read per text char
+ *  - average shift distance
+ *
+ * Comparing, say, the median comparisons per char of "kmp" and
+ * "boyerMoore" over the same workload shows which algorithm suits its
+ * pattern shapes. Memory stays bounded no matter how many searches run.
+ *
+ * It is thread-safe: every method synchronizes on the histogram.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class SearchMetricsHistogram implements SearchMetricsListener {
+
+    /**
+     * Quantiles printed by {@link #summary()}.
+     */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99};
+
+    private final Map<String, Summary> summaries = new TreeMap<>();
+
+    @Override
+    public synchronized void searchFinished(SearchMetrics metrics) {
+        Summary summary = summaries.get(metrics.getAlgorithm());
+        if (summary == null) {
+            summary = new Summary();
+            summaries.put(metrics.getAlgorithm(), summary);
+        }
+        summary.add(metrics);
+    }
+
+    /**
+     * Gets the number of searches recorded for an algorithm.
+     *
+     * @param algorithm the name of the algorithm
+     * @return the number of searches, or 0 if there were none
+     */
+    public synchronized long getCalls(String algorithm) {
+        Summary summary = summaries.get(algorithm);
+        return summary == null ? 0 : summary.calls;
+    }
+
+    /**
+     * Estimates a quantile of the nanoseconds per text char of an
+     * algorithm's searches.
+     *
+     * @throws IllegalArgumentException if q is not in [0, 1]
+     * @throws IllegalStateException if no search of the algorithm was
+     * recorded
+     * @param algorithm the name of the algorithm
+     * @param q the quantile, e.g. 0.99 for the 99th percentile
+     * @return the estimated nanoseconds per char at quantile q
+     */
+    public synchronized double nanosPerChar(String algorithm, double q) {
+        return get(algorithm).nanosPerChar.quantile(q);
+    }
+
+    /**
+     * Estimates a quantile of the comparisons per text char of an
+     * algorithm's searches.
+     *
+     * @throws IllegalArgumentException if q is not in [0, 1]
+     * @throws IllegalStateException if no search of the algorithm was
+     * recorded
+     * @param algorithm the name of the algorithm
+     * @param q the quantile
+     * @return the estimated comparisons per char at quantile q
+     */
+    public synchronized double comparisonsPerChar(String algorithm,
+                                                  double q) {
+        return get(algorithm).comparisonsPerChar.quantile(q);
+    }
+
+    /**
+     * Estimates a quantile of the average shift distance of an algorithm's
+     * searches.
+     *
+     * @throws IllegalArgumentException if q is not in [0, 1]
+     * @throws IllegalStateException if no search of the algorithm was
+     * recorded
+     * @param algorithm the name of the algorithm
+     * @param q the quantile
+     * @return the estimated average shift at quantile q
+     */
+    public synchronized double averageShift(String algorithm, double q) {
+        return get(algorithm).averageShift.quantile(q);
+    }
+
+    /**
+     * Forgets every recorded search.
+     */
+    public synchronized void clear() {
+        summaries.clear();
+    }
+
+    /**
+     * Returns the summary of an algorithm.
+     *
+     * @throws IllegalStateException if no search of the algorithm was
+     * recorded
+     * @param algorithm the name of the algorithm
+     * @return the summary
+     */
+    private Summary get(String algorithm) {
+        Summary summary = summaries.get(algorithm);
+        if (summary == null) {
+            throw new IllegalStateException("No searches were recorded for "
+                    + algorithm + ".");
+        }
+        return summary;
+    }
+
+    /**
+     * Formats a table with one block per algorithm, giving its totals and
+     * the 50th, 90th and 99th percentiles of each ratio.
+     *
+     * @return the summary of every recorded search
+     */
+    public synchronized String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Summary> entry : summaries.entrySet()) {
+            Summary summary = entry.getValue();
+            sb.append(String.format("%s: calls=%d matches=%d"
+                    + " spuriousHits=%d%n", entry.getKey(), summary.calls,
+                    summary.matches, summary.spuriousHits));
+            appendQuantiles(sb, "nanos/char", summary.nanosPerChar);
+            appendQuantiles(sb, "comparisons/char",
+                    summary.comparisonsPerChar);
+            appendQuantiles(sb, "reads/char", summary.readsPerChar);
+            appendQuantiles(sb, "average shift", summary.averageShift);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Appends one line of quantiles.
+     *
+     * @param sb the builder to append to
+     * @param name the name of the ratio
+     * @param sketch the sketch of the ratio
+     */
+    private static void appendQuantiles(StringBuilder sb, String name,
+                                        QuantileSketch sketch) {
+        double[] values = sketch.quantiles(QUANTILES);
+        sb.append(String.format("  %-18s p50=%.3f p90=%.3f p99=%.3f%n", name,
+                values[0], values[1], values[2]));
+    }
+
+    @Override
+    public String toString() {
+        return summary();
+    }
+
+    /**
+     * The totals and sketches of one algorithm.
+     */
+    private static final class Summary {
+        private long calls;
+        private long matches;
+        private long spuriousHits;
+        private final QuantileSketch nanosPerChar = new QuantileSketch();
+        private final QuantileSketch comparisonsPerChar = new QuantileSketch();
+        private final QuantileSketch readsPerChar = new QuantileSketch();
+        private final QuantileSketch averageShift = new QuantileSketch();
+
+        /**
+         * Adds one search.
+         *
+         * @param metrics what the search did
+         */
+        void add(SearchMetrics metrics) {
+            calls++;
+            matches += metrics.getMatches();
+            spuriousHits += metrics.getSpuriousHits();
+            double n = Math.max(1, metrics.getTextLength());
+            nanosPerChar.add(metrics.getNanos() / n);
+            comparisonsPerChar.add(metrics.getComparisons() / n);
+            readsPerChar.add(metrics.getCharsRead() / n);
+            averageShift.add(metrics.getAverageShift());
+        }
+    }
+}
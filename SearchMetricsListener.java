@@ -0,0 +1,22 @@
+/**
+ * Receives the {@link SearchMetrics} of every search made through
+ * {@link StringSearching} while it is installed with
+ * {@link StringSearching#setMetricsListener(SearchMetricsListener)}.
+ *
+ * Callbacks are made on the thread that ran the search, after the search
+ * has finished, so a listener shared by several threads must be
+ * thread-safe. {@link SearchMetricsHistogram} is a ready-made one.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface SearchMetricsListener {
+
+    /**
+     * Called once after each search.
+     *
+     * @param metrics what the search did
+     */
+    void searchFinished(SearchMetrics metrics);
+}
@@ -0,0 +1,239 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Picks a search algorithm from the shape of the pattern and the length of
+ * the text, so call sites do not have to guess between KMP, Boyer-Moore
+ * and the rest. The rules, in order:
+ *
+ *  - a text shorter than {@link #getShortText()} chars is scanned with
+ *    {@link IndexOfPattern}, since no table would pay for itself
+ *  - a pattern of at most {@link #getTinyPattern()} chars uses
+ *    {@link IndexOfPattern}, a memchr-style scan for its first char
+ *  - a periodic pattern, one whose shortest period (m minus the last entry
+ *    of its failure table) is at most half its length, uses KMP, which
+ *    never compares a text char twice however often partial matches repeat
+ *  - a pattern of at least {@link #getLongPattern()} chars with at least
+ *    {@link #getLargeAlphabet()} distinct chars uses Boyer-Moore, which
+ *    skips furthest when mismatches are likely
+ *  - anything else uses KMP
+ *
+ * Several patterns at once are always searched with one
+ * {@link AhoCorasick} pass over the text.
+ *
+ * Compiled patterns are kept in a {@link PatternCache}, so the choice and
+ * the tables are only computed once per pattern. The thresholds are fixed
+ * per selector; measure a workload with the JMH suite or a
+ * {@link SearchMetricsHistogram} and pass better ones to the constructor.
+ *
+ * It is thread-safe.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class SearchSelector {
+
+    /**
+     * Default length up to which a pattern is scanned for with indexOf.
+     */
+    public static final int DEFAULT_TINY_PATTERN = 2;
+
+    /**
+     * Default text length below which indexOf is used for any pattern.
+     */
+    public static final int DEFAULT_SHORT_TEXT = 256;
+
+    /**
+     * Default length from which a pattern may use Boyer-Moore.
+     */
+    public static final int DEFAULT_LONG_PATTERN = 8;
+
+    /**
+     * Default number of distinct pattern chars from which a pattern may use
+     * Boyer-Moore.
+     */
+    public static final int DEFAULT_LARGE_ALPHABET = 8;
+
+    /**
+     * Default number of compiled patterns kept.
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 256;
+
+    private final int tinyPattern;
+    private final int shortText;
+    private final int longPattern;
+    private final int largeAlphabet;
+    private final PatternCache cache;
+
+    /**
+     * Creates a selector with the default thresholds.
+     */
+    public SearchSelector() {
+        this(DEFAULT_TINY_PATTERN, DEFAULT_SHORT_TEXT, DEFAULT_LONG_PATTERN,
+                DEFAULT_LARGE_ALPHABET, DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * Creates a selector with the given thresholds.
+     *
+     * @throws IllegalArgumentException if any threshold is negative or
+     * cacheCapacity is less than 1
+     * @param tinyPattern the length up to which a pattern uses indexOf
+     * @param shortText the text length below which indexOf is used
+     * @param longPattern the length from which a pattern may use
+     * Boyer-Moore
+     * @param largeAlphabet the number of distinct pattern chars from which
+     * a pattern may use Boyer-Moore
+     * @param cacheCapacity the number of compiled patterns to keep
+     */
+    public SearchSelector(int tinyPattern, int shortText, int longPattern,
+                          int largeAlphabet, int cacheCapacity) {
+        if (tinyPattern < 0 || shortText < 0 || longPattern < 0
+                || largeAlphabet < 0 || cacheCapacity < 1) {
+            throw new IllegalArgumentException("Thresholds cannot be negative"
+                    + " and the cache capacity must be at least 1.");
+        }
+        this.tinyPattern = tinyPattern;
+        this.shortText = shortText;
+        this.longPattern = longPattern;
+        this.largeAlphabet = largeAlphabet;
+        this.cache = new PatternCache(cacheCapacity, this::compile);
+    }
+
+    /**
+     * Compiles a pattern with the algorithm that suits its shape, ignoring
+     * the text. Does not use the cache.
+     *
+     * Have a worst case running time of:
+     *  O(m log m)
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     * @return the compiled pattern
+     */
+    public CompiledPattern compile(CharSequence pattern) {
+        if (pattern == null || pattern.length() == 0) {
+            throw new IllegalArgumentException("Input pattern is null or"
+                    + " empty, please enter a valid input next time.");
+        }
+        int m = pattern.length();
+        if (m <= tinyPattern) {
+            return new IndexOfPattern(pattern);
+        }
+        int[] failureTable = StringSearching.buildFailureTable(pattern);
+        if (2 * (m - failureTable[m - 1]) <= m) {
+            return new KmpPattern(pattern);
+        }
+        if (m >= longPattern && distinctChars(pattern) >= largeAlphabet) {
+            return new BoyerMoorePattern(pattern);
+        }
+        return new KmpPattern(pattern);
+    }
+
+    /**
+     * Returns the compiled pattern to search a text of the given length
+     * with, taking it from the cache when the text is long enough to use
+     * one.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to search for
+     * @param textLength the length of the text to search
+     * @return the compiled pattern
+     */
+    public CompiledPattern select(CharSequence pattern, int textLength) {
+        if (textLength < shortText) {
+            return new IndexOfPattern(pattern);
+        }
+        return cache.get(pattern);
+    }
+
+    /**
+     * Finds every occurrence of the pattern in the text with the algorithm
+     * this selector picks.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @throws IllegalArgumentException if text is null
+     * @param pattern the pattern you are searching for
+     * @param text the body of text where you search for the pattern
+     * @return list containing the starting index for each match found, in
+     * ascending order
+     */
+    public List<Integer> search(CharSequence pattern, CharSequence text) {
+        CompiledPattern.checkText(text);
+        return select(pattern, text.length()).findAll(text);
+    }
+
+    /**
+     * Finds every occurrence of any of the patterns in the text, in one
+     * pass with Aho-Corasick.
+     *
+     * @throws IllegalArgumentException if the list, any pattern or the text
+     * is null, or any pattern is of length 0
+     * @param patterns the patterns you are searching for
+     * @param text the body of text where you search for the patterns
+     * @return every match, ordered by end offset
+     */
+    public List<AhoCorasick.Match> search(
+            List<? extends CharSequence> patterns, CharSequence text) {
+        CompiledPattern.checkText(text);
+        return new AhoCorasick(patterns).findAll(text);
+    }
+
+    /**
+     * Counts the distinct chars of a pattern.
+     *
+     * @param pattern the pattern
+     * @return the number of distinct chars
+     */
+    private static int distinctChars(CharSequence pattern) {
+        char[] chars = new char[pattern.length()];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = pattern.charAt(i);
+        }
+        Arrays.sort(chars);
+        int distinct = 1;
+        for (int i = 1; i < chars.length; i++) {
+            if (chars[i] != chars[i - 1]) {
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Gets the length up to which a pattern uses indexOf.
+     *
+     * @return the tiny pattern threshold
+     */
+    public int getTinyPattern() {
+        return tinyPattern;
+    }
+
+    /**
+     * Gets the text length below which indexOf is used.
+     *
+     * @return the short text threshold
+     */
+    public int getShortText() {
+        return shortText;
+    }
+
+    /**
+     * Gets the length from which a pattern may use Boyer-Moore.
+     *
+     * @return the long pattern threshold
+     */
+    public int getLongPattern() {
+        return longPattern;
+    }
+
+    /**
+     * Gets the number of distinct pattern chars from which a pattern may
+     * use Boyer-Moore.
+     *
+     * @return the large alphabet threshold
+     */
+    public int getLargeAlphabet() {
+        return largeAlphabet;
+    }
+}
@@ -1,5 +1,10 @@
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Your implementation of various sorting algorithms.
@@ -37,9 +42,23 @@ public class Sorting {
             throw new IllegalArgumentException("The input array or comparator"
                     + " is null, please use a valid input next time.");
         }
-        for (int i = 1; i < arr.length; i++) {
+        insertionSort(arr, 0, arr.length, comparator);
+    }
+
+    /**
+     * Private helper method to insertion sort the range arr[lo, hi) in place.
+     *
+     * @param arr the array containing the range to sort
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     * @param comparator the Comparator used to compare the data in arr
+     * @param <T> data type to sort
+     */
+    private static <T> void insertionSort(T[] arr, int lo, int hi,
+                                          Comparator<T> comparator) {
+        for (int i = lo + 1; i < hi; i++) {
             int j = i;
-            while (j > 0 && comparator.compare(arr[j - 1], arr[j]) > 0) {
+            while (j > lo && comparator.compare(arr[j - 1], arr[j]) > 0) {
                 swap(arr, j - 1, j);
                 j--;
             }
@@ -156,6 +175,541 @@ public class Sorting {
         arr[ind2] = swap;
     }
 
+    /**
+     * Range length at or below which selection just insertion sorts the
+     * remaining range.
+     */
+    private static final int SELECT_INSERTION_THRESHOLD = 16;
+
+    /**
+     * Kth select with a guaranteed linear worst case (introselect).
+     *
+     * It should be:
+     *  in-place
+     *
+     * Have a worst case running time of:
+     *  O(n)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * Pivots are chosen as the median of the first, middle and last element
+     * of the range, and the range is split three ways into elements less
+     * than, equal to and greater than the pivot (Dutch national flag), so
+     * runs of duplicate keys are settled in a single pass. Every two
+     * partitions the range must have at least halved; as long as it does,
+     * the partitions cost at most 2n + n + n / 2 + ... = 4n comparisons.
+     * The first time it does not, the remaining iterations pick their pivot
+     * with median of medians, which keeps at least 30% of the range out of
+     * each partition, so the total work stays O(n) even on adversarial
+     * input.
+     *
+     * Unlike kthSelect no Random is needed, and the order the array is left
+     * in differs from kthSelect. Use kthSelect when its exact behavior is
+     * required.
+     *
+     * @throws IllegalArgumentException if the array or comparator is null or
+     * k is not in the range of 1 to arr.length
+     * @param <T> data type to sort
+     * @param k the index + 1 (due to 0-indexing) to retrieve the data
+     * from as if the array were sorted; the 'k' in "kth select"
+     * @param arr the array that should be modified after the method
+     * is finished executing as needed
+     * @param comparator the Comparator used to compare the data in arr
+     * @return the kth smallest element
+     */
+    public static <T> T introSelect(int k, T[] arr, Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new IllegalArgumentException("The input array or comparator"
+                    + " is null, please use a valid input next time.");
+        } else if (k < 1 || k > arr.length) {
+            throw new IllegalArgumentException("Index " + k + " is not within"
+                    + " the range of the input array (" + 1 + "-" + arr.length
+                    + ").");
+        }
+        return introSelectHelper(k - 1, arr, 0, arr.length, comparator,
+                false);
+    }
+
+    /**
+     * Computes the number of median-of-three partitions quickSort and
+     * multiSelect allow before switching to median of medians,
+     * 2 * floor(log2(n)).
+     *
+     * @param n the length of the range being selected from
+     * @return the depth limit
+     */
+    private static int introDepth(int n) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(n, 1)));
+    }
+
+    /**
+     * Private iterative helper method to perform introselect on the range
+     * arr[left, right).
+     *
+     * @param k the index of the value being searched for
+     * @param arr the array that should be modified after the method
+     * is finished executing as needed
+     * @param left the lower boundary of the portion of concern
+     * @param right the upper boundary of the portion of concern
+     * @param comparator the Comparator used to compare the data in arr
+     * @param guaranteed true to use median of medians from the start
+     * @param <T> data type to sort
+     * @return the kth smallest element
+     */
+    private static <T> T introSelectHelper(int k, T[] arr, int left,
+                                           int right, Comparator<T> comparator,
+                                           boolean guaranteed) {
+        // Range length two partitions ago, to check it at least halved
+        int checkpoint = right - left;
+        int partitions = 0;
+        while (right - left > SELECT_INSERTION_THRESHOLD) {
+            T pivot = guaranteed ? medianOfMedians(arr, left, right, comparator)
+                    : medianOfThree(arr, left, right, comparator);
+            long bounds = partitionThreeWay(arr, left, right, pivot,
+                    comparator);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            if (k < lt) {
+                right = lt;
+            } else if (k >= gt) {
+                left = gt;
+            } else {
+                return arr[k];
+            }
+            if (!guaranteed && ++partitions == 2) {
+                guaranteed = 2 * (right - left) > checkpoint;
+                checkpoint = right - left;
+                partitions = 0;
+            }
+        }
+        insertionSort(arr, left, right, comparator);
+        return arr[k];
+    }
+
+    /**
+     * Sorts arr[left, right) in place with three-way quick sort. Pivots are
+     * the median of three, and after 2 * floor(log2(n)) levels median of
+     * medians takes over, so the worst case stays O(n log n). Runs of equal
+     * keys are finished in a single partition.
+     *
+     * Not stable. Package-private so that SampleSort can sort its buckets.
+     *
+     * @param arr the array containing the range to sort
+     * @param left the lower boundary of the range (inclusive)
+     * @param right the upper boundary of the range (exclusive)
+     * @param comparator the Comparator used to compare the data in arr
+     * @param <T> data type to sort
+     */
+    static <T> void quickSort(T[] arr, int left, int right,
+                              Comparator<T> comparator) {
+        quickSortHelper(arr, left, right, comparator,
+                introDepth(right - left));
+    }
+
+    /**
+     * Private recursive helper method to perform quickSort. Recurses into the
+     * smaller side of each partition and loops on the larger one, so the
+     * stack depth stays O(log n).
+     *
+     * @param arr the array containing the range to sort
+     * @param left the lower boundary of the range (inclusive)
+     * @param right the upper boundary of the range (exclusive)
+     * @param comparator the Comparator used to compare the data in arr
+     * @param depth the number of median-of-three partitions left before
+     * median of medians is used
+     * @param <T> data type to sort
+     */
+    private static <T> void quickSortHelper(T[] arr, int left, int right,
+                                            Comparator<T> comparator,
+                                            int depth) {
+        while (right - left > SELECT_INSERTION_THRESHOLD) {
+            T pivot;
+            if (depth > 0) {
+                pivot = medianOfThree(arr, left, right, comparator);
+                depth--;
+            } else {
+                pivot = medianOfMedians(arr, left, right, comparator);
+            }
+            long bounds = partitionThreeWay(arr, left, right, pivot,
+                    comparator);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            if (lt - left < right - gt) {
+                quickSortHelper(arr, left, lt, comparator, depth);
+                left = gt;
+            } else {
+                quickSortHelper(arr, gt, right, comparator, depth);
+                right = lt;
+            }
+        }
+        insertionSort(arr, left, right, comparator);
+    }
+
+    /**
+     * Private helper method that returns the median of the first, middle and
+     * last element of the range arr[left, right).
+     *
+     * @param arr the array containing the range
+     * @param left the lower boundary of the range (inclusive)
+     * @param right the upper boundary of the range (exclusive)
+     * @param comparator the Comparator used to compare the data in arr
+     * @param <T> data type to sort
+     * @return the median of the three sampled elements
+     */
+    private static <T> T medianOfThree(T[] arr, int left, int right,
+                                       Comparator<T> comparator) {
+        T a = arr[left];
+        T b = arr[left + (right - left) / 2];
+        T c = arr[right - 1];
+        if (comparator.compare(a, b) > 0) {
+            T temp = a;
+            a = b;
+            b = temp;
+        }
+        if (comparator.compare(b, c) > 0) {
+            b = c;
+            if (comparator.compare(a, b) > 0) {
+                b = a;
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Private helper method that finds an approximate median of the range
+     * arr[left, right) with the median of medians method: the median of every
+     * group of five is moved to the front of the range and the true median of
+     * those medians is selected recursively. The result is guaranteed to have
+     * at least 30% of the range on either side of it.
+     *
+     * @param arr the array containing the range, which is reordered
+     * @param left the lower boundary of the range (inclusive)
+     * @param right the upper boundary of the range (exclusive)
+     * @param comparator the Comparator used to compare the data in arr
+     * @param <T> data type to sort
+     * @return the median of medians
+     */
+    private static <T> T medianOfMedians(T[] arr, int left, int right,
+                                         Comparator<T> comparator) {
+        int store = left;
+        for (int group = left; group < right; group += 5) {
+            int end = Math.min(group + 5, right);
+            insertionSort(arr, group, end, comparator);
+            swap(arr, store, group + (end - group - 1) / 2);
+            store++;
+        }
+        return introSelectHelper(left + (store - left - 1) / 2, arr, left,
+                store, comparator, true);
+    }
+
+    /**
+     * Private helper method that partitions arr[left, right) three ways
+     * around pivot, so that the range ends up as elements less than pivot,
+     * then elements equal to pivot, then elements greater than pivot.
+     *
+     * @param arr the array containing the range
+     * @param left the lower boundary of the range (inclusive)
+     * @param right the upper boundary of the range (exclusive)
+     * @param pivot the value to partition around
+     * @param comparator the Comparator used to compare the data in arr
+     * @param <T> data type to sort
+     * @return the start of the equal block in the upper 32 bits and the end
+     * of the equal block (exclusive) in the lower 32 bits
+     */
+    private static <T> long partitionThreeWay(T[] arr, int left, int right,
+                                              T pivot,
+                                              Comparator<T> comparator) {
+        int lt = left;
+        int i = left;
+        int gt = right;
+        while (i < gt) {
+            int cmp = comparator.compare(arr[i], pivot);
+            if (cmp < 0) {
+                swap(arr, lt, i);
+                lt++;
+                i++;
+            } else if (cmp > 0) {
+                gt--;
+                swap(arr, i, gt);
+            } else {
+                i++;
+            }
+        }
+        return ((long) lt << 32) | gt;
+    }
+
+    /**
+     * Finds several order statistics of the same array at once.
+     *
+     * It should be:
+     *  in-place
+     *
+     * Have a worst case running time of:
+     *  O(n log q) for q distinct values of k
+     *
+     * Works like introSelect, except that after each three-way partition the
+     * search continues into every side that still contains one of the
+     * requested ranks instead of just one. Each element therefore takes part
+     * in about log q partitions rather than q full selections.
+     *
+     * When the method returns, arr[k - 1] holds the kth smallest element for
+     * every requested k.
+     *
+     * @throws IllegalArgumentException if ks, the array or comparator is null
+     * or any k is not in the range of 1 to arr.length
+     * @param <T> data type to sort
+     * @param ks the requested ranks, each the index + 1 (due to 0-indexing);
+     * they may be in any order and may repeat
+     * @param arr the array that should be modified after the method
+     * is finished executing as needed
+     * @param comparator the Comparator used to compare the data in arr
+     * @return the kth smallest element for each k, in the order of ks
+     */
+    public static <T> List<T> multiSelect(int[] ks, T[] arr,
+                                          Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new IllegalArgumentException("The input array or comparator"
+                    + " is null, please use a valid input next time.");
+        }
+        int[] ranks = sortedRanks(ks, arr.length);
+        multiSelectHelper(ranks, 0, ranks.length, arr, 0, arr.length,
+                comparator, introDepth(arr.length));
+        List<T> result = new ArrayList<>(ks.length);
+        for (int k : ks) {
+            result.add(arr[k - 1]);
+        }
+        return result;
+    }
+
+    /**
+     * Finds several order statistics of the same double array at once, with
+     * the same contract as the generic multiSelect. Elements are compared
+     * with {@link Double#compare}.
+     *
+     * Example: for latency samples, {@code multiSelect(new int[] {n / 2,
+     * n * 99 / 100}, samples)} returns the median and the 99th percentile.
+     *
+     * @throws IllegalArgumentException if ks or the array is null or any k is
+     * not in the range of 1 to arr.length
+     * @param ks the requested ranks, each the index + 1 (due to 0-indexing);
+     * they may be in any order and may repeat
+     * @param arr the array that should be modified after the method
+     * is finished executing as needed
+     * @return the kth smallest element for each k, in the order of ks
+     */
+    public static double[] multiSelect(int[] ks, double[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        int[] ranks = sortedRanks(ks, arr.length);
+        multiSelectHelper(ranks, 0, ranks.length, arr, 0, arr.length,
+                introDepth(arr.length));
+        double[] result = new double[ks.length];
+        for (int i = 0; i < ks.length; i++) {
+            result[i] = arr[ks[i] - 1];
+        }
+        return result;
+    }
+
+    /**
+     * Private helper method that validates the ranks passed to multiSelect and
+     * returns them as sorted 0-based indices.
+     *
+     * @throws IllegalArgumentException if ks is null or any k is not in the
+     * range of 1 to length
+     * @param ks the requested 1-based ranks
+     * @param length the length of the array being selected from
+     * @return the 0-based ranks in ascending order
+     */
+    private static int[] sortedRanks(int[] ks, int length) {
+        if (ks == null) {
+            throw new IllegalArgumentException("The input ranks are null,"
+                    + " please use a valid input next time.");
+        }
+        int[] ranks = new int[ks.length];
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] < 1 || ks[i] > length) {
+                throw new IllegalArgumentException("Index " + ks[i] + " is"
+                        + " not within the range of the input array (" + 1
+                        + "-" + length + ").");
+            }
+            ranks[i] = ks[i] - 1;
+        }
+        mergeSort(ranks);
+        return ranks;
+    }
+
+    /**
+     * Private helper method that finds the first position in the sorted range
+     * ranks[lo, hi) whose value is at least key.
+     *
+     * @param ranks the sorted ranks
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     * @param key the value to search for
+     * @return the first position whose rank is >= key, or hi if there is none
+     */
+    private static int firstRankAtLeast(int[] ranks, int lo, int hi, int key) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ranks[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Private recursive helper method to perform multiSelect. Places the
+     * correct element at every index in ranks[kLo, kHi), all of which lie in
+     * arr[left, right).
+     *
+     * @param ranks the sorted 0-based ranks
+     * @param kLo the first rank of concern (inclusive)
+     * @param kHi the last rank of concern (exclusive)
+     * @param arr the array being selected from
+     * @param left the lower boundary of the portion of concern
+     * @param right the upper boundary of the portion of concern
+     * @param comparator the Comparator used to compare the data in arr
+     * @param depth the number of median-of-three partitions left before
+     * median of medians is used
+     * @param <T> data type to sort
+     */
+    private static <T> void multiSelectHelper(int[] ranks, int kLo, int kHi,
+                                              T[] arr, int left, int right,
+                                              Comparator<T> comparator,
+                                              int depth) {
+        while (kLo < kHi) {
+            if (right - left <= SELECT_INSERTION_THRESHOLD) {
+                insertionSort(arr, left, right, comparator);
+                return;
+            }
+            T pivot;
+            if (depth > 0) {
+                pivot = medianOfThree(arr, left, right, comparator);
+                depth--;
+            } else {
+                pivot = medianOfMedians(arr, left, right, comparator);
+            }
+            long bounds = partitionThreeWay(arr, left, right, pivot,
+                    comparator);
+            int lt = (int) (bounds >>> 32);
+            int gt = (int) bounds;
+            int lowEnd = firstRankAtLeast(ranks, kLo, kHi, lt);
+            int highStart = firstRankAtLeast(ranks, lowEnd, kHi, gt);
+            multiSelectHelper(ranks, kLo, lowEnd, arr, left, lt, comparator,
+                    depth);
+            kLo = highStart;
+            left = gt;
+        }
+    }
+
+    /**
+     * Private recursive helper method to perform multiSelect on a double
+     * array, with the same contract as the generic version.
+     *
+     * @param ranks the sorted 0-based ranks
+     * @param kLo the first rank of concern (inclusive)
+     * @param kHi the last rank of concern (exclusive)
+     * @param arr the array being selected from
+     * @param left the lower boundary of the portion of concern
+     * @param right the upper boundary of the portion of concern
+     * @param depth the number of median-of-three partitions left before
+     * median of medians is used
+     */
+    private static void multiSelectHelper(int[] ranks, int kLo, int kHi,
+                                          double[] arr, int left, int right,
+                                          int depth) {
+        while (kLo < kHi) {
+            if (right - left <= SELECT_INSERTION_THRESHOLD) {
+                insertionSort(arr, left, right);
+                return;
+            }
+            double pivot;
+            if (depth > 0) {
+                pivot = medianOfThree(arr, left, right);
+                depth--;
+            } else {
+                pivot = medianOfMedians(arr, left, right);
+            }
+            // Three-way partition around pivot
+            int lt = left;
+            int i = left;
+            int gt = right;
+            while (i < gt) {
+                int cmp = Double.compare(arr[i], pivot);
+                if (cmp < 0) {
+                    swap(arr, lt, i);
+                    lt++;
+                    i++;
+                } else if (cmp > 0) {
+                    gt--;
+                    swap(arr, i, gt);
+                } else {
+                    i++;
+                }
+            }
+            int lowEnd = firstRankAtLeast(ranks, kLo, kHi, lt);
+            int highStart = firstRankAtLeast(ranks, lowEnd, kHi, gt);
+            multiSelectHelper(ranks, kLo, lowEnd, arr, left, lt, depth);
+            kLo = highStart;
+            left = gt;
+        }
+    }
+
+    /**
+     * Private helper method that returns the median of the first, middle and
+     * last element of the range arr[left, right) of a double array.
+     *
+     * @param arr the array containing the range
+     * @param left the lower boundary of the range (inclusive)
+     * @param right the upper boundary of the range (exclusive)
+     * @return the median of the three sampled elements
+     */
+    private static double medianOfThree(double[] arr, int left, int right) {
+        double a = arr[left];
+        double b = arr[left + (right - left) / 2];
+        double c = arr[right - 1];
+        if (Double.compare(a, b) > 0) {
+            double temp = a;
+            a = b;
+            b = temp;
+        }
+        if (Double.compare(b, c) > 0) {
+            b = c;
+            if (Double.compare(a, b) > 0) {
+                b = a;
+            }
+        }
+        return b;
+    }
+
+    /**
+     * Private helper method that finds the median of medians of the range
+     * arr[left, right) of a double array, like the generic version.
+     *
+     * @param arr the array containing the range, which is reordered
+     * @param left the lower boundary of the range (inclusive)
+     * @param right the upper boundary of the range (exclusive)
+     * @return the median of medians
+     */
+    private static double medianOfMedians(double[] arr, int left, int right) {
+        int store = left;
+        for (int group = left; group < right; group += 5) {
+            int end = Math.min(group + 5, right);
+            insertionSort(arr, group, end);
+            swap(arr, store, group + (end - group - 1) / 2);
+            store++;
+        }
+        int mid = left + (store - left - 1) / 2;
+        multiSelectHelper(new int[] {mid}, 0, 1, arr, left, store, 0);
+        return arr[mid];
+    }
+
     /**
      * Implement merge sort.
      *
@@ -263,107 +817,1561 @@ public class Sorting {
     }
 
     /**
-     * Implement LSD (least significant digit) radix sort.
-     *
-     * Remember you CANNOT convert the ints to strings at any point in your
-     * code!
+     * Run length at or below which the buffered merge sorts hand the run to
+     * insertion sort instead of splitting it further.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /**
+     * Merge sort that allocates a single auxiliary buffer up front.
      *
      * It should be:
      *  stable
      *
      * Have a worst case running time of:
-     *  O(kn)
+     *  O(n log n)
      *
      * And a best case running time of:
-     *  O(kn)
-     *
-     * Any duplicates in the array should be in the same relative position after
-     * sorting as they were before sorting. (stable)
+     *  O(n)
      *
-     * Do NOT use {@code Math.pow()} in your sort. Instead, if you need to, use
-     * the provided {@code pow()} method below.
+     * Unlike mergeSort, which copies both halves into new arrays at every
+     * recursion level, this version copies the input into one buffer of
+     * length n and alternates which of the two arrays is the source and
+     * which is the destination at each level. Runs of at most 32 elements
+     * are sorted with insertion sort, and a merge is replaced by a plain
+     * copy when the last element of the left half is no greater than the
+     * first element of the right half. This is why already sorted input
+     * runs in linear time.
      *
-     * You may use {@code java.util.ArrayList} or {@code java.util.LinkedList}
-     * if you wish, but it may only be used inside radix sort and any radix sort
-     * helpers. Do NOT use these classes with other sorts.
+     * Splits and breaks ties the same way mergeSort does, so the result is
+     * identical to mergeSort for the same input and comparator.
      *
-     * @throws IllegalArgumentException if the array is null
+     * @throws IllegalArgumentException if the array or comparator is null
+     * @param <T> data type to sort
      * @param arr the array to be sorted
-     * @return the sorted array
+     * @param comparator the Comparator used to compare the data in arr
      */
-    public static int[] lsdRadixSort(int[] arr) {
-        if (arr == null) {
-            throw new IllegalArgumentException("Input array is null, please"
-                    + " use a valid input next time.");
+    public static <T> void bufferedMergeSort(T[] arr,
+                                             Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new IllegalArgumentException("The input array or comparator"
+                    + " is null, please use a valid input next time.");
         }
-        if (arr.length == 0) {
-            return arr;
-        }
-        java.util.LinkedList<Integer>[] buckets =
-                (java.util.LinkedList<Integer>[]) new java.util.LinkedList[19];
-        // Determine the longest number in the array and find its number of
-        // digits, k
-        int longest = Math.abs(arr[0]);
-        for (int i = 0; i < arr.length; i++) {
-            if (arr[i] > Integer.MIN_VALUE + 1 && Math.abs(arr[i]) > longest) {
-                longest = Math.abs(arr[i]);
-            }
-        }
-        int k = 1;
-        while ((longest / 10) > 0) {
-            longest /= 10;
-            k++;
-        }
-        // Begin Radix Sort
-        int bucket;
-        for (int i = 0; i < k; i++) {
-            for (int j = 0; j < arr.length; j++) {
-                bucket = arr[j] / pow(10, i) % 10 + 9;
-                if (buckets[bucket] == null) {
-                    buckets[bucket] = new java.util.LinkedList<>();
-                }
-                buckets[bucket].addLast(arr[j]);
-            }
-            int ind = 0;
-            for (bucket = 0; bucket < 19; bucket++) {
-                while (buckets[bucket] != null && !buckets[bucket].isEmpty()) {
-                    arr[ind] = buckets[bucket].removeFirst();
-                    ind++;
-                }
-            }
+        if (arr.length > 1) {
+            T[] buffer = Arrays.copyOf(arr, arr.length);
+            pingPongSort(buffer, arr, 0, arr.length, comparator);
         }
-        return arr;
     }
 
     /**
-     * Calculate the result of a number raised to a power. Use this method in
-     * your radix sorts instead of {@code Math.pow()}.
+     * Arrays shorter than this are sorted by adaptiveMergeSort with a single
+     * binary insertion sort; it is also the lower bound on the minimum run
+     * length for longer arrays.
+     */
+    private static final int MIN_MERGE = 32;
+
+    /**
+     * Number of consecutive wins by one run after which adaptiveMergeSort
+     * switches from element-by-element merging to galloping.
+     */
+    private static final int MIN_GALLOP = 7;
+
+    /**
+     * Adaptive, run-detecting merge sort in the style of TimSort.
+     *
+     * It should be:
+     *  stable
      *
-     * DO NOT MODIFY THIS METHOD.
+     * Have a worst case running time of:
+     *  O(n log n)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * The array is scanned for natural runs that are already ascending, or
+     * strictly descending (which are reversed in place, keeping the sort
+     * stable). Runs shorter than a minimum length between 16 and 32 are
+     * extended with binary insertion sort. The runs are pushed on a stack and
+     * merged under invariants that keep the merges balanced. Before each
+     * merge, the elements already in place at either end are skipped with an
+     * exponential (galloping) search, and while merging, a run that wins
+     * MIN_GALLOP times in a row is copied in blocks found by galloping.
      *
-     * @throws IllegalArgumentException if both {@code base} and {@code exp} are
-     * 0
-     * @throws IllegalArgumentException if {@code exp} is negative
-     * @param base base of the number
-     * @param exp power to raise the base to. Must be 0 or greater.
-     * @return result of the base raised to that power
+     * Input that is already sorted, reverse sorted or made of a few sorted
+     * blocks is handled in close to linear time. Scratch space is at most
+     * n / 2 elements.
+     *
+     * @throws IllegalArgumentException if the array or comparator is null
+     * @param <T> data type to sort
+     * @param arr the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
      */
-    private static int pow(int base, int exp) {
-        if (exp < 0) {
-            throw new IllegalArgumentException("Exponent cannot be negative.");
-        } else if (base == 0 && exp == 0) {
-            throw new IllegalArgumentException(
-                    "Both base and exponent cannot be 0.");
-        } else if (exp == 0) {
-            return 1;
-        } else if (exp == 1) {
-            return base;
+    public static <T> void adaptiveMergeSort(T[] arr,
+                                             Comparator<T> comparator) {
+        if (arr == null || comparator == null) {
+            throw new IllegalArgumentException("The input array or comparator"
+                    + " is null, please use a valid input next time.");
         }
-        int halfPow = pow(base, exp / 2);
-        if (exp % 2 == 0) {
-            return halfPow * halfPow;
-        } else {
-            return halfPow * halfPow * base;
+        int n = arr.length;
+        if (n < 2) {
+            return;
+        }
+        if (n < MIN_MERGE) {
+            int runLen = countRunAndMakeAscending(arr, 0, n, comparator);
+            binaryInsertionSort(arr, 0, n, runLen, comparator);
+            return;
+        }
+        RunMerger<T> merger = new RunMerger<>(arr, comparator);
+        int minRun = minRunLength(n);
+        int lo = 0;
+        while (lo < n) {
+            int runLen = countRunAndMakeAscending(arr, lo, n, comparator);
+            if (runLen < minRun) {
+                int force = Math.min(n - lo, minRun);
+                binaryInsertionSort(arr, lo, lo + force, lo + runLen,
+                        comparator);
+                runLen = force;
+            }
+            merger.pushRun(lo, runLen);
+            merger.mergeCollapse();
+            lo += runLen;
+        }
+        merger.mergeForceCollapse();
+    }
+
+    /**
+     * Private helper method that computes the minimum run length for
+     * adaptiveMergeSort, chosen so that n / minRun is close to, but no more
+     * than, a power of two and the final merges stay balanced.
+     *
+     * @param n the length of the array
+     * @return the minimum run length
+     */
+    private static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * Private helper method that finds the length of the run starting at lo.
+     * A run is either ascending (each element >= the previous one) or
+     * strictly descending; descending runs are reversed in place so that
+     * every run is ascending when this returns.
+     *
+     * @param arr the array containing the run
+     * @param lo the index of the first element of the run
+     * @param hi the end of the range that the run may extend to (exclusive)
+     * @param comparator the Comparator used to compare the data in arr
+     * @param <T> data type to sort
+     * @return the length of the run
+     */
+    private static <T> int countRunAndMakeAscending(T[] arr, int lo, int hi,
+                                                    Comparator<T> comparator) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+        if (comparator.compare(arr[runHi++], arr[lo]) < 0) {
+            while (runHi < hi
+                    && comparator.compare(arr[runHi], arr[runHi - 1]) < 0) {
+                runHi++;
+            }
+            for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                swap(arr, i, j);
+            }
+        } else {
+            while (runHi < hi
+                    && comparator.compare(arr[runHi], arr[runHi - 1]) >= 0) {
+                runHi++;
+            }
+        }
+        return runHi - lo;
+    }
+
+    /**
+     * Private helper method that sorts arr[lo, hi) with binary insertion
+     * sort, given that arr[lo, start) is already sorted. Each element is
+     * inserted after any equal elements, which keeps the sort stable.
+     *
+     * @param arr the array containing the range to sort
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     * @param start the first index that is not known to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @param <T> data type to sort
+     */
+    private static <T> void binaryInsertionSort(T[] arr, int lo, int hi,
+                                                int start,
+                                                Comparator<T> comparator) {
+        for (int i = Math.max(start, lo + 1); i < hi; i++) {
+            T pivot = arr[i];
+            int pos = upperBound(arr, lo, i, pivot, comparator);
+            System.arraycopy(arr, pos, arr, pos + 1, i - pos);
+            arr[pos] = pivot;
+        }
+    }
+
+    /**
+     * Private helper method that finds where key belongs in the sorted range
+     * arr[base, base + len), placing it before any equal elements. The search
+     * gallops outwards from base + hint in steps of 1, 3, 7, 15, ... and then
+     * binary searches the last step, so it is fast when the answer is close
+     * to the hint.
+     *
+     * @param key the element to search for
+     * @param arr the array to search
+     * @param base the first index of the range
+     * @param len the length of the range, at least 1
+     * @param hint the offset from base to start galloping from
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type being searched
+     * @return the offset k such that arr[base + k - 1] < key <= arr[base + k]
+     */
+    private static <T> int gallopLeft(T key, T[] arr, int base, int len,
+                                      int hint, Comparator<T> comparator) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (comparator.compare(key, arr[base + hint]) > 0) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs
+                    && comparator.compare(key, arr[base + hint + ofs]) > 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            ofs = Math.min(ofs, maxOfs);
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs
+                    && comparator.compare(key, arr[base + hint - ofs]) <= 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            ofs = Math.min(ofs, maxOfs);
+            int temp = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - temp;
+        }
+        return lowerBound(arr, base + lastOfs + 1, base + ofs, key,
+                comparator) - base;
+    }
+
+    /**
+     * Private helper method that finds where key belongs in the sorted range
+     * arr[base, base + len), placing it after any equal elements. Gallops
+     * from the hint like gallopLeft.
+     *
+     * @param key the element to search for
+     * @param arr the array to search
+     * @param base the first index of the range
+     * @param len the length of the range, at least 1
+     * @param hint the offset from base to start galloping from
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type being searched
+     * @return the offset k such that arr[base + k - 1] <= key < arr[base + k]
+     */
+    private static <T> int gallopRight(T key, T[] arr, int base, int len,
+                                       int hint, Comparator<T> comparator) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (comparator.compare(key, arr[base + hint]) < 0) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs
+                    && comparator.compare(key, arr[base + hint - ofs]) < 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            ofs = Math.min(ofs, maxOfs);
+            int temp = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - temp;
+        } else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs
+                    && comparator.compare(key, arr[base + hint + ofs]) >= 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            ofs = Math.min(ofs, maxOfs);
+            lastOfs += hint;
+            ofs += hint;
+        }
+        return upperBound(arr, base + lastOfs + 1, base + ofs, key,
+                comparator) - base;
+    }
+
+    /**
+     * Holds the run stack and merge buffer for one adaptiveMergeSort call.
+     *
+     * @param <T> data type to sort
+     */
+    private static final class RunMerger<T> {
+        private final T[] arr;
+        private final Comparator<T> comparator;
+        private final int[] runBase = new int[49];
+        private final int[] runLen = new int[49];
+        private int stackSize;
+        private T[] tmp;
+
+        /**
+         * Creates an empty run stack for the given array.
+         *
+         * @param arr the array being sorted
+         * @param comparator the Comparator used to compare the data in arr
+         */
+        RunMerger(T[] arr, Comparator<T> comparator) {
+            this.arr = arr;
+            this.comparator = comparator;
+        }
+
+        /**
+         * Pushes a sorted run onto the stack.
+         *
+         * @param base the index of the first element of the run
+         * @param len the length of the run
+         */
+        void pushRun(int base, int len) {
+            runBase[stackSize] = base;
+            runLen[stackSize] = len;
+            stackSize++;
+        }
+
+        /**
+         * Merges runs until the stack invariants hold again: each run is
+         * longer than the sum of the two runs above it, and each run is
+         * longer than the one above it. This keeps the stack depth
+         * logarithmic and the merges balanced.
+         */
+        void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                        || n > 1
+                        && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges every remaining run on the stack into one.
+         */
+        void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * Merges the runs at stack positions i and i + 1.
+         *
+         * @param i the stack position of the lower of the two runs
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+            // Elements of run 1 no greater than run 2's first are in place
+            int k = gallopRight(arr[base2], arr, base1, len1, 0, comparator);
+            base1 += k;
+            len1 -= k;
+            if (len1 == 0) {
+                return;
+            }
+            // Elements of run 2 no less than run 1's last are in place
+            len2 = gallopLeft(arr[base1 + len1 - 1], arr, base2, len2,
+                    len2 - 1, comparator);
+            if (len2 == 0) {
+                return;
+            }
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        /**
+         * Makes sure the merge buffer holds at least len elements.
+         *
+         * @param len the number of elements needed
+         * @return the merge buffer
+         */
+        private T[] ensureCapacity(int len) {
+            if (tmp == null || tmp.length < len) {
+                int size = Math.max(len, Math.min(arr.length >>> 1,
+                        tmp == null ? 256 : tmp.length * 2));
+                // Only ever holds elements of arr, and never leaves the merger
+                @SuppressWarnings("unchecked")
+                T[] grown = (T[]) new Object[size];
+                tmp = grown;
+            }
+            return tmp;
+        }
+
+        /**
+         * Merges two adjacent runs from left to right, copying the shorter
+         * first run into the buffer. Requires that the first element of run
+         * 2 is less than the first of run 1 and that the last element of run
+         * 1 is greater than every element of run 2.
+         *
+         * @param base1 the index of the first element of run 1
+         * @param len1 the length of run 1
+         * @param base2 the index of the first element of run 2
+         * @param len2 the length of run 2
+         */
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            T[] buf = ensureCapacity(len1);
+            System.arraycopy(arr, base1, buf, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+        outer:
+            while (len1 > 0 && len2 > 0) {
+                int count1 = 0;
+                int count2 = 0;
+                while (count1 < MIN_GALLOP && count2 < MIN_GALLOP) {
+                    if (comparator.compare(arr[cursor2], buf[cursor1]) < 0) {
+                        arr[dest++] = arr[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        arr[dest++] = buf[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) {
+                            break outer;
+                        }
+                    }
+                }
+                do {
+                    count1 = gallopRight(arr[cursor2], buf, cursor1, len1, 0,
+                            comparator);
+                    if (count1 != 0) {
+                        System.arraycopy(buf, cursor1, arr, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        len1 -= count1;
+                        if (len1 == 0) {
+                            break outer;
+                        }
+                    }
+                    arr[dest++] = arr[cursor2++];
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+                    count2 = gallopLeft(buf[cursor1], arr, cursor2, len2, 0,
+                            comparator);
+                    if (count2 != 0) {
+                        System.arraycopy(arr, cursor2, arr, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        len2 -= count2;
+                        if (len2 == 0) {
+                            break outer;
+                        }
+                    }
+                    arr[dest++] = buf[cursor1++];
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+            }
+            // Whatever is left of run 2 is already in place
+            System.arraycopy(buf, cursor1, arr, dest, len1);
+        }
+
+        /**
+         * Merges two adjacent runs from right to left, copying the shorter
+         * second run into the buffer. Has the same requirements as mergeLo.
+         *
+         * @param base1 the index of the first element of run 1
+         * @param len1 the length of run 1
+         * @param base2 the index of the first element of run 2
+         * @param len2 the length of run 2
+         */
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            T[] buf = ensureCapacity(len2);
+            System.arraycopy(arr, base2, buf, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+        outer:
+            while (len1 > 0 && len2 > 0) {
+                int count1 = 0;
+                int count2 = 0;
+                while (count1 < MIN_GALLOP && count2 < MIN_GALLOP) {
+                    if (comparator.compare(buf[cursor2], arr[cursor1]) < 0) {
+                        arr[dest--] = arr[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--len1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        arr[dest--] = buf[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--len2 == 0) {
+                            break outer;
+                        }
+                    }
+                }
+                do {
+                    count1 = len1 - gallopRight(buf[cursor2], arr, base1, len1,
+                            len1 - 1, comparator);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        len1 -= count1;
+                        System.arraycopy(arr, cursor1 + 1, arr, dest + 1,
+                                count1);
+                        if (len1 == 0) {
+                            break outer;
+                        }
+                    }
+                    arr[dest--] = buf[cursor2--];
+                    if (--len2 == 0) {
+                        break outer;
+                    }
+                    count2 = len2 - gallopLeft(arr[cursor1], buf, 0, len2,
+                            len2 - 1, comparator);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        len2 -= count2;
+                        System.arraycopy(buf, cursor2 + 1, arr, dest + 1,
+                                count2);
+                        if (len2 == 0) {
+                            break outer;
+                        }
+                    }
+                    arr[dest--] = arr[cursor1--];
+                    if (--len1 == 0) {
+                        break outer;
+                    }
+                } while (count1 >= MIN_GALLOP || count2 >= MIN_GALLOP);
+            }
+            // Whatever is left of run 1 is already in place
+            System.arraycopy(buf, 0, arr, dest - len2 + 1, len2);
+        }
+    }
+
+    /**
+     * Default number of elements below which parallelMergeSort stops forking
+     * new tasks and sorts or merges sequentially instead.
+     */
+    public static final int PARALLEL_MERGE_CUTOFF = 8192;
+
+    /**
+     * Parallel merge sort on the common ForkJoinPool using the default
+     * cutoff of {@link #PARALLEL_MERGE_CUTOFF}.
+     *
+     * @throws IllegalArgumentException if the array or comparator is null
+     * @param <T> data type to sort
+     * @param arr the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @see #parallelMergeSort(Object[], Comparator, int)
+     */
+    public static <T> void parallelMergeSort(T[] arr,
+                                             Comparator<T> comparator) {
+        parallelMergeSort(arr, comparator, PARALLEL_MERGE_CUTOFF);
+    }
+
+    /**
+     * Parallel merge sort on the common ForkJoinPool.
+     *
+     * It should be:
+     *  stable
+     *
+     * Have a worst case running time of:
+     *  O(n log n)
+     *
+     * And a best case running time of:
+     *  O(n log n)
+     *
+     * Splits exactly the way mergeSort does (the excess element goes on the
+     * right side) and breaks ties towards the left half, so the result is
+     * identical to mergeSort for the same input and comparator.
+     *
+     * Instead of copying each half into new arrays, a single scratch array of
+     * length n is allocated up front and the two arrays swap roles between
+     * recursion levels. Both the sorting of the halves and the merging itself
+     * are split across the pool until a subproblem has at most
+     * {@code cutoff} elements, at which point it is handled sequentially.
+     *
+     * @throws IllegalArgumentException if the array or comparator is null or
+     * the cutoff is less than 1
+     * @param <T> data type to sort
+     * @param arr the array to be sorted
+     * @param comparator the Comparator used to compare the data in arr
+     * @param cutoff the subproblem size at or below which work is no longer
+     * split into parallel tasks
+     */
+    public static <T> void parallelMergeSort(T[] arr, Comparator<T> comparator,
+                                             int cutoff) {
+        if (arr == null || comparator == null) {
+            throw new IllegalArgumentException("The input array or comparator"
+                    + " is null, please use a valid input next time.");
+        } else if (cutoff < 1) {
+            throw new IllegalArgumentException("Cutoff " + cutoff + " is"
+                    + " invalid, it must be at least 1.");
+        }
+        if (arr.length > 1) {
+            T[] scratch = Arrays.copyOf(arr, arr.length);
+            ForkJoinPool.commonPool().invoke(new MergeSortTask<>(scratch, arr,
+                    0, arr.length, comparator, cutoff));
+        }
+    }
+
+    /**
+     * Sorts src[lo, hi) into dst[lo, hi). Both arrays must hold the same
+     * elements in that range when called; src is used as workspace and is
+     * left in an unspecified order. Stable.
+     *
+     * Package-private so that SampleSort can sort its buckets in place.
+     *
+     * @param src the array holding the unsorted elements
+     * @param dst the array that receives the sorted elements
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to sort
+     */
+    static <T> void pingPongSort(T[] src, T[] dst, int lo, int hi,
+                                 Comparator<T> comparator) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(dst, lo, hi, comparator);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        pingPongSort(dst, src, lo, mid, comparator);
+        pingPongSort(dst, src, mid, hi, comparator);
+        if (comparator.compare(src[mid - 1], src[mid]) <= 0) {
+            // The halves are already in order, so the merge is a plain copy
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+        } else {
+            mergeRuns(src, lo, mid, mid, hi, dst, lo, comparator);
+        }
+    }
+
+    /**
+     * Merges the sorted runs src[lo1, hi1) and src[lo2, hi2) into dst
+     * starting at index out. Ties are taken from the first run.
+     *
+     * @param src the array holding both runs
+     * @param lo1 the start of the first run (inclusive)
+     * @param hi1 the end of the first run (exclusive)
+     * @param lo2 the start of the second run (inclusive)
+     * @param hi2 the end of the second run (exclusive)
+     * @param dst the array to merge into
+     * @param out the index in dst of the first merged element
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type to sort
+     */
+    private static <T> void mergeRuns(T[] src, int lo1, int hi1, int lo2,
+                                      int hi2, T[] dst, int out,
+                                      Comparator<T> comparator) {
+        while (lo1 < hi1 && lo2 < hi2) {
+            if (comparator.compare(src[lo1], src[lo2]) <= 0) {
+                dst[out++] = src[lo1++];
+            } else {
+                dst[out++] = src[lo2++];
+            }
+        }
+        System.arraycopy(src, lo1, dst, out, hi1 - lo1);
+        System.arraycopy(src, lo2, dst, out + hi1 - lo1, hi2 - lo2);
+    }
+
+    /**
+     * Fork/join task that sorts src[lo, hi) into dst[lo, hi) with the same
+     * contract as pingPongSort.
+     *
+     * @param <T> data type to sort
+     */
+    private static final class MergeSortTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] src;
+        private final T[] dst;
+        private final int lo;
+        private final int hi;
+        private final Comparator<T> comparator;
+        private final int cutoff;
+
+        /**
+         * Creates a task to sort src[lo, hi) into dst[lo, hi).
+         *
+         * @param src the array holding the unsorted elements
+         * @param dst the array that receives the sorted elements
+         * @param lo the lower boundary of the range (inclusive)
+         * @param hi the upper boundary of the range (exclusive)
+         * @param comparator the Comparator used to compare the data
+         * @param cutoff the size at or below which the task runs sequentially
+         */
+        MergeSortTask(T[] src, T[] dst, int lo, int hi,
+                      Comparator<T> comparator, int cutoff) {
+            this.src = src;
+            this.dst = dst;
+            this.lo = lo;
+            this.hi = hi;
+            this.comparator = comparator;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= cutoff) {
+                pingPongSort(src, dst, lo, hi, comparator);
+                return;
+            }
+            int mid = lo + (hi - lo) / 2;
+            invokeAll(new MergeSortTask<>(dst, src, lo, mid, comparator,
+                            cutoff),
+                    new MergeSortTask<>(dst, src, mid, hi, comparator,
+                            cutoff));
+            new MergeTask<>(src, lo, mid, mid, hi, dst, lo, comparator,
+                    cutoff).compute();
+        }
+    }
+
+    /**
+     * Fork/join task that merges src[lo1, hi1) and src[lo2, hi2) into dst
+     * starting at index out. Large merges are split by taking the middle
+     * element of the longer run and binary searching for its position in the
+     * shorter run, so both pieces can be merged independently. Ties are
+     * always resolved in favor of the first run to keep the merge stable.
+     *
+     * @param <T> data type to sort
+     */
+    private static final class MergeTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final T[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final T[] dst;
+        private final int out;
+        private final Comparator<T> comparator;
+        private final int cutoff;
+
+        /**
+         * Creates a task to merge two sorted runs of src into dst.
+         *
+         * @param src the array holding both runs
+         * @param lo1 the start of the first run (inclusive)
+         * @param hi1 the end of the first run (exclusive)
+         * @param lo2 the start of the second run (inclusive)
+         * @param hi2 the end of the second run (exclusive)
+         * @param dst the array to merge into
+         * @param out the index in dst of the first merged element
+         * @param comparator the Comparator used to compare the data
+         * @param cutoff the size at or below which the task runs sequentially
+         */
+        MergeTask(T[] src, int lo1, int hi1, int lo2, int hi2, T[] dst,
+                  int out, Comparator<T> comparator, int cutoff) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+            this.comparator = comparator;
+            this.cutoff = cutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int len1 = hi1 - lo1;
+            int len2 = hi2 - lo2;
+            if (len1 + len2 <= cutoff || len1 == 0 || len2 == 0) {
+                mergeRuns(src, lo1, hi1, lo2, hi2, dst, out, comparator);
+                return;
+            }
+            int m1;
+            int m2;
+            int split;
+            if (len1 >= len2) {
+                // Elements of run 2 equal to the split stay after it
+                m1 = lo1 + len1 / 2;
+                m2 = lowerBound(src, lo2, hi2, src[m1], comparator);
+                split = out + (m1 - lo1) + (m2 - lo2);
+                dst[split] = src[m1];
+                invokeAll(new MergeTask<>(src, lo1, m1, lo2, m2, dst, out,
+                                comparator, cutoff),
+                        new MergeTask<>(src, m1 + 1, hi1, m2, hi2, dst,
+                                split + 1, comparator, cutoff));
+            } else {
+                // Elements of run 1 equal to the split stay before it
+                m2 = lo2 + len2 / 2;
+                m1 = upperBound(src, lo1, hi1, src[m2], comparator);
+                split = out + (m1 - lo1) + (m2 - lo2);
+                dst[split] = src[m2];
+                invokeAll(new MergeTask<>(src, lo1, m1, lo2, m2, dst, out,
+                                comparator, cutoff),
+                        new MergeTask<>(src, m1, hi1, m2 + 1, hi2, dst,
+                                split + 1, comparator, cutoff));
+            }
+        }
+    }
+
+    /**
+     * Finds the first index in the sorted range arr[lo, hi) whose element is
+     * not less than key.
+     *
+     * @param arr the array to search
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     * @param key the element to search for
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type being searched
+     * @return the index of the first element >= key, or hi if there is none
+     */
+    private static <T> int lowerBound(T[] arr, int lo, int hi, T key,
+                                      Comparator<T> comparator) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(arr[mid], key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the first index in the sorted range arr[lo, hi) whose element is
+     * greater than key.
+     *
+     * @param arr the array to search
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     * @param key the element to search for
+     * @param comparator the Comparator used to compare the data
+     * @param <T> data type being searched
+     * @return the index of the first element > key, or hi if there is none
+     */
+    private static <T> int upperBound(T[] arr, int lo, int hi, T key,
+                                      Comparator<T> comparator) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(arr[mid], key) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Insertion sort specialized for {@code int} arrays. Elements are
+     * compared with {@code <} instead of a Comparator, so nothing is boxed.
+     *
+     * It should be:
+     *  in-place
+     *  stable
+     *
+     * Have a worst case running time of:
+     *  O(n^2)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param arr the array that must be sorted after the method runs
+     */
+    public static void insertionSort(int[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        insertionSort(arr, 0, arr.length);
+    }
+
+    /**
+     * Private helper method to insertion sort the range arr[lo, hi) of a
+     * {@code int} array in place.
+     *
+     * @param arr the array containing the range to sort
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     */
+    private static void insertionSort(int[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int x = arr[i];
+            int j = i;
+            while (j > lo && arr[j - 1] > x) {
+                arr[j] = arr[j - 1];
+                j--;
+            }
+            arr[j] = x;
+        }
+    }
+
+    /**
+     * Merge sort specialized for {@code int} arrays, with the same contract
+     * as bufferedMergeSort: one auxiliary buffer is allocated up front, small
+     * runs are insertion sorted and already ordered halves are copied
+     * without merging. Elements are compared with {@code <}.
+     *
+     * It should be:
+     *  stable
+     *
+     * Have a worst case running time of:
+     *  O(n log n)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param arr the array to be sorted
+     */
+    public static void mergeSort(int[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        if (arr.length > 1) {
+            pingPongSort(arr.clone(), arr, 0, arr.length);
+        }
+    }
+
+    /**
+     * Sorts src[lo, hi) into dst[lo, hi) for {@code int} arrays. Both
+     * arrays must hold the same elements in that range when called.
+     *
+     * @param src the array holding the unsorted elements
+     * @param dst the array that receives the sorted elements
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     */
+    private static void pingPongSort(int[] src, int[] dst, int lo, int hi) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(dst, lo, hi);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        pingPongSort(dst, src, lo, mid);
+        pingPongSort(dst, src, mid, hi);
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+        int i = lo;
+        int j = mid;
+        int out = lo;
+        while (i < mid && j < hi) {
+            if (src[i] > src[j]) {
+                dst[out++] = src[j++];
+            } else {
+                dst[out++] = src[i++];
+            }
+        }
+        System.arraycopy(src, i, dst, out, mid - i);
+        System.arraycopy(src, j, dst, out + mid - i, hi - j);
+    }
+
+    /**
+     * Kth select specialized for {@code int} arrays. Uses the same pivot
+     * selection and partitioning as the generic kthSelect, so the same
+     * Random seed visits the same pivots. Elements are compared with
+     * {@code <}.
+     *
+     * It should be:
+     *  in-place
+     *
+     * Have a worst case running time of:
+     *  O(n^2)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * @throws IllegalArgumentException if the array or rand is null or k is
+     * not in the range of 1 to arr.length
+     * @param k the index + 1 (due to 0-indexing) to retrieve the data
+     * from as if the array were sorted; the 'k' in "kth select"
+     * @param arr the array that should be modified after the method
+     * is finished executing as needed
+     * @param rand the Random object used to select pivots
+     * @return the kth smallest element
+     */
+    public static int kthSelect(int k, int[] arr, Random rand) {
+        if (arr == null || rand == null) {
+            throw new IllegalArgumentException("The input array or random"
+                    + " is null, please use a valid input next time.");
+        } else if (k < 1 || k > arr.length) {
+            throw new IllegalArgumentException("Index " + k + " is not within"
+                    + " the range of the input array (" + 1 + "-" + arr.length
+                    + ").");
+        }
+        int target = k - 1;
+        int left = 0;
+        int right = arr.length;
+        while (true) {
+            int pivInd = rand.nextInt(right - left) + left;
+            int pivot = arr[pivInd];
+            swap(arr, pivInd, left);
+            int i = left + 1;
+            int j = right - 1;
+            while (i <= j) {
+                while (i <= j && arr[i] <= pivot) {
+                    i++;
+                }
+                while (i <= j && pivot <= arr[j]) {
+                    j--;
+                }
+                if (i < j) {
+                    swap(arr, i, j);
+                    j--;
+                    i++;
+                }
+            }
+            swap(arr, j, left);
+            if (target > j) {
+                left = j + 1;
+            } else if (target < j) {
+                right = j;
+            } else {
+                return arr[j];
+            }
+        }
+    }
+
+    /**
+     * Private helper method to swap two items in a {@code int} array
+     *
+     * @param arr the array containing the items
+     * @param ind1 the index of the first item
+     * @param ind2 the index of the second item
+     */
+    private static void swap(int[] arr, int ind1, int ind2) {
+        int swap = arr[ind1];
+        arr[ind1] = arr[ind2];
+        arr[ind2] = swap;
+    }
+
+    /**
+     * Insertion sort specialized for {@code long} arrays. Elements are
+     * compared with {@code <} instead of a Comparator, so nothing is boxed.
+     *
+     * It should be:
+     *  in-place
+     *  stable
+     *
+     * Have a worst case running time of:
+     *  O(n^2)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param arr the array that must be sorted after the method runs
+     */
+    public static void insertionSort(long[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        insertionSort(arr, 0, arr.length);
+    }
+
+    /**
+     * Private helper method to insertion sort the range arr[lo, hi) of a
+     * {@code long} array in place.
+     *
+     * @param arr the array containing the range to sort
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     */
+    private static void insertionSort(long[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long x = arr[i];
+            int j = i;
+            while (j > lo && arr[j - 1] > x) {
+                arr[j] = arr[j - 1];
+                j--;
+            }
+            arr[j] = x;
+        }
+    }
+
+    /**
+     * Merge sort specialized for {@code long} arrays, with the same contract
+     * as bufferedMergeSort: one auxiliary buffer is allocated up front, small
+     * runs are insertion sorted and already ordered halves are copied
+     * without merging. Elements are compared with {@code <}.
+     *
+     * It should be:
+     *  stable
+     *
+     * Have a worst case running time of:
+     *  O(n log n)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param arr the array to be sorted
+     */
+    public static void mergeSort(long[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        if (arr.length > 1) {
+            pingPongSort(arr.clone(), arr, 0, arr.length);
+        }
+    }
+
+    /**
+     * Sorts src[lo, hi) into dst[lo, hi) for {@code long} arrays. Both
+     * arrays must hold the same elements in that range when called.
+     *
+     * @param src the array holding the unsorted elements
+     * @param dst the array that receives the sorted elements
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     */
+    private static void pingPongSort(long[] src, long[] dst, int lo, int hi) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(dst, lo, hi);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        pingPongSort(dst, src, lo, mid);
+        pingPongSort(dst, src, mid, hi);
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+        int i = lo;
+        int j = mid;
+        int out = lo;
+        while (i < mid && j < hi) {
+            if (src[i] > src[j]) {
+                dst[out++] = src[j++];
+            } else {
+                dst[out++] = src[i++];
+            }
+        }
+        System.arraycopy(src, i, dst, out, mid - i);
+        System.arraycopy(src, j, dst, out + mid - i, hi - j);
+    }
+
+    /**
+     * Kth select specialized for {@code long} arrays. Uses the same pivot
+     * selection and partitioning as the generic kthSelect, so the same
+     * Random seed visits the same pivots. Elements are compared with
+     * {@code <}.
+     *
+     * It should be:
+     *  in-place
+     *
+     * Have a worst case running time of:
+     *  O(n^2)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * @throws IllegalArgumentException if the array or rand is null or k is
+     * not in the range of 1 to arr.length
+     * @param k the index + 1 (due to 0-indexing) to retrieve the data
+     * from as if the array were sorted; the 'k' in "kth select"
+     * @param arr the array that should be modified after the method
+     * is finished executing as needed
+     * @param rand the Random object used to select pivots
+     * @return the kth smallest element
+     */
+    public static long kthSelect(int k, long[] arr, Random rand) {
+        if (arr == null || rand == null) {
+            throw new IllegalArgumentException("The input array or random"
+                    + " is null, please use a valid input next time.");
+        } else if (k < 1 || k > arr.length) {
+            throw new IllegalArgumentException("Index " + k + " is not within"
+                    + " the range of the input array (" + 1 + "-" + arr.length
+                    + ").");
+        }
+        int target = k - 1;
+        int left = 0;
+        int right = arr.length;
+        while (true) {
+            int pivInd = rand.nextInt(right - left) + left;
+            long pivot = arr[pivInd];
+            swap(arr, pivInd, left);
+            int i = left + 1;
+            int j = right - 1;
+            while (i <= j) {
+                while (i <= j && arr[i] <= pivot) {
+                    i++;
+                }
+                while (i <= j && pivot <= arr[j]) {
+                    j--;
+                }
+                if (i < j) {
+                    swap(arr, i, j);
+                    j--;
+                    i++;
+                }
+            }
+            swap(arr, j, left);
+            if (target > j) {
+                left = j + 1;
+            } else if (target < j) {
+                right = j;
+            } else {
+                return arr[j];
+            }
+        }
+    }
+
+    /**
+     * Private helper method to swap two items in a {@code long} array
+     *
+     * @param arr the array containing the items
+     * @param ind1 the index of the first item
+     * @param ind2 the index of the second item
+     */
+    private static void swap(long[] arr, int ind1, int ind2) {
+        long swap = arr[ind1];
+        arr[ind1] = arr[ind2];
+        arr[ind2] = swap;
+    }
+
+    /**
+     * Insertion sort specialized for {@code double} arrays. Elements are
+     * compared with {@link Double#compare} instead of a Comparator, so
+     * nothing is boxed.
+     *
+     * It should be:
+     *  in-place
+     *  stable
+     *
+     * Have a worst case running time of:
+     *  O(n^2)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param arr the array that must be sorted after the method runs
+     */
+    public static void insertionSort(double[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        insertionSort(arr, 0, arr.length);
+    }
+
+    /**
+     * Private helper method to insertion sort the range arr[lo, hi) of a
+     * {@code double} array in place.
+     *
+     * @param arr the array containing the range to sort
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     */
+    private static void insertionSort(double[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            double x = arr[i];
+            int j = i;
+            while (j > lo && Double.compare(arr[j - 1], x) > 0) {
+                arr[j] = arr[j - 1];
+                j--;
+            }
+            arr[j] = x;
+        }
+    }
+
+    /**
+     * Merge sort specialized for {@code double} arrays, with the same contract
+     * as bufferedMergeSort: one auxiliary buffer is allocated up front, small
+     * runs are insertion sorted and already ordered halves are copied
+     * without merging. Elements are compared with {@link Double#compare}.
+     *
+     * It should be:
+     *  stable
+     *
+     * Have a worst case running time of:
+     *  O(n log n)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param arr the array to be sorted
+     */
+    public static void mergeSort(double[] arr) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        }
+        if (arr.length > 1) {
+            pingPongSort(arr.clone(), arr, 0, arr.length);
+        }
+    }
+
+    /**
+     * Sorts src[lo, hi) into dst[lo, hi) for {@code double} arrays. Both
+     * arrays must hold the same elements in that range when called.
+     *
+     * @param src the array holding the unsorted elements
+     * @param dst the array that receives the sorted elements
+     * @param lo the lower boundary of the range (inclusive)
+     * @param hi the upper boundary of the range (exclusive)
+     */
+    private static void pingPongSort(double[] src, double[] dst, int lo,
+                                     int hi) {
+        if (hi - lo <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(dst, lo, hi);
+            return;
+        }
+        int mid = lo + (hi - lo) / 2;
+        pingPongSort(dst, src, lo, mid);
+        pingPongSort(dst, src, mid, hi);
+        if (Double.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, lo, dst, lo, hi - lo);
+            return;
+        }
+        int i = lo;
+        int j = mid;
+        int out = lo;
+        while (i < mid && j < hi) {
+            if (Double.compare(src[i], src[j]) > 0) {
+                dst[out++] = src[j++];
+            } else {
+                dst[out++] = src[i++];
+            }
+        }
+        System.arraycopy(src, i, dst, out, mid - i);
+        System.arraycopy(src, j, dst, out + mid - i, hi - j);
+    }
+
+    /**
+     * Kth select specialized for {@code double} arrays. Uses the same pivot
+     * selection and partitioning as the generic kthSelect, so the same
+     * Random seed visits the same pivots. Elements are compared with
+     * {@link Double#compare}.
+     *
+     * It should be:
+     *  in-place
+     *
+     * Have a worst case running time of:
+     *  O(n^2)
+     *
+     * And a best case running time of:
+     *  O(n)
+     *
+     * @throws IllegalArgumentException if the array or rand is null or k is
+     * not in the range of 1 to arr.length
+     * @param k the index + 1 (due to 0-indexing) to retrieve the data
+     * from as if the array were sorted; the 'k' in "kth select"
+     * @param arr the array that should be modified after the method
+     * is finished executing as needed
+     * @param rand the Random object used to select pivots
+     * @return the kth smallest element
+     */
+    public static double kthSelect(int k, double[] arr, Random rand) {
+        if (arr == null || rand == null) {
+            throw new IllegalArgumentException("The input array or random"
+                    + " is null, please use a valid input next time.");
+        } else if (k < 1 || k > arr.length) {
+            throw new IllegalArgumentException("Index " + k + " is not within"
+                    + " the range of the input array (" + 1 + "-" + arr.length
+                    + ").");
+        }
+        int target = k - 1;
+        int left = 0;
+        int right = arr.length;
+        while (true) {
+            int pivInd = rand.nextInt(right - left) + left;
+            double pivot = arr[pivInd];
+            swap(arr, pivInd, left);
+            int i = left + 1;
+            int j = right - 1;
+            while (i <= j) {
+                while (i <= j && Double.compare(arr[i], pivot) <= 0) {
+                    i++;
+                }
+                while (i <= j && Double.compare(pivot, arr[j]) <= 0) {
+                    j--;
+                }
+                if (i < j) {
+                    swap(arr, i, j);
+                    j--;
+                    i++;
+                }
+            }
+            swap(arr, j, left);
+            if (target > j) {
+                left = j + 1;
+            } else if (target < j) {
+                right = j;
+            } else {
+                return arr[j];
+            }
+        }
+    }
+
+    /**
+     * Private helper method to swap two items in a {@code double} array
+     *
+     * @param arr the array containing the items
+     * @param ind1 the index of the first item
+     * @param ind2 the index of the second item
+     */
+    private static void swap(double[] arr, int ind1, int ind2) {
+        double swap = arr[ind1];
+        arr[ind1] = arr[ind2];
+        arr[ind2] = swap;
+    }
+
+    /**
+     * Default number of key bits consumed by each lsdRadixSort pass.
+     */
+    public static final int DEFAULT_RADIX_BITS = 8;
+
+    /**
+     * LSD (least significant digit) radix sort using 8-bit digits.
+     *
+     * @throws IllegalArgumentException if the array is null
+     * @param arr the array to be sorted
+     * @return the sorted array
+     * @see #lsdRadixSort(int[], int)
+     */
+    public static int[] lsdRadixSort(int[] arr) {
+        return lsdRadixSort(arr, DEFAULT_RADIX_BITS);
+    }
+
+    /**
+     * LSD (least significant digit) radix sort.
+     *
+     * It should be:
+     *  stable
+     *
+     * Have a worst case running time of:
+     *  O(kn)
+     *
+     * And a best case running time of:
+     *  O(kn)
+     *
+     * where k = 32 / radixBits is the number of passes.
+     *
+     * Any duplicates in the array should be in the same relative position after
+     * sorting as they were before sorting. (stable)
+     *
+     * Each pass is a counting sort on one radixBits-wide digit: a histogram
+     * of the digit is turned into bucket offsets with a prefix sum, and every
+     * element is scattered into a single scratch array that is reused by all
+     * passes. A pass is skipped when every element has the same digit. The
+     * sign bit is flipped before extracting digits, so negative numbers
+     * (including {@code Integer.MIN_VALUE}) sort before positive ones.
+     *
+     * @throws IllegalArgumentException if the array is null or radixBits is
+     * not 8 or 16
+     * @param arr the array to be sorted
+     * @param radixBits the number of key bits consumed per pass, 8 or 16
+     * @return the sorted array
+     */
+    public static int[] lsdRadixSort(int[] arr, int radixBits) {
+        if (arr == null) {
+            throw new IllegalArgumentException("Input array is null, please"
+                    + " use a valid input next time.");
+        } else if (radixBits != 8 && radixBits != 16) {
+            throw new IllegalArgumentException("Radix of " + radixBits
+                    + " bits is invalid, it must be 8 or 16.");
+        }
+        if (arr.length > 1) {
+            int[] src = arr;
+            int[] dst = new int[arr.length];
+            int[] count = new int[1 << radixBits];
+            for (int shift = 0; shift < Integer.SIZE; shift += radixBits) {
+                if (radixPass(src, dst, count, shift, radixBits)) {
+                    int[] temp = src;
+                    src = dst;
+                    dst = temp;
+                }
+            }
+            if (src != arr) {
+                System.arraycopy(src, 0, arr, 0, arr.length);
+            }
+        }
+        return arr;
+    }
+
+    /**
+     * Private helper method to perform one stable counting sort pass of LSD
+     * radix sort from src into dst on the digit at the given shift.
+     *
+     * @param src the array holding the elements to distribute
+     * @param dst the array that receives the distributed elements
+     * @param count the histogram array, of length 2^radixBits, to reuse
+     * @param shift the bit position of the lowest bit of the digit
+     * @param radixBits the width of the digit in bits
+     * @return true if the elements were moved into dst, or false if the pass
+     * was skipped because every element has the same digit
+     */
+    private static boolean radixPass(int[] src, int[] dst, int[] count,
+                                     int shift, int radixBits) {
+        int mask = (1 << radixBits) - 1;
+        Arrays.fill(count, 0);
+        for (int x : src) {
+            count[((x ^ Integer.MIN_VALUE) >>> shift) & mask]++;
+        }
+        if (count[((src[0] ^ Integer.MIN_VALUE) >>> shift) & mask]
+                == src.length) {
+            return false;
+        }
+        int sum = 0;
+        for (int bucket = 0; bucket < count.length; bucket++) {
+            int c = count[bucket];
+            count[bucket] = sum;
+            sum += c;
+        }
+        for (int x : src) {
+            dst[count[((x ^ Integer.MIN_VALUE) >>> shift) & mask]++] = x;
         }
+        return true;
     }
 }
\ No newline at end of file
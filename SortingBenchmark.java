@@ -0,0 +1,115 @@
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * Command line benchmark comparing the heap allocation and running time of
+ * Sorting.mergeSort against Sorting.bufferedMergeSort.
+ *
+ * Run it with:
+ *
+ *   java SortingBenchmark [size] [iterations]
+ *
+ * Allocation is read from the HotSpot per-thread allocation counter, so
+ * the numbers only cover the sorting thread and require a HotSpot JVM.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public class SortingBenchmark {
+
+    /**
+     * Default number of elements in each array that is sorted.
+     */
+    private static final int DEFAULT_SIZE = 1_000_000;
+
+    /**
+     * Default number of measured sorts per algorithm.
+     */
+    private static final int DEFAULT_ITERATIONS = 10;
+
+    /**
+     * Number of unmeasured sorts per algorithm to let the JIT compile.
+     */
+    private static final int WARMUP_ITERATIONS = 5;
+
+    /**
+     * Interface shared by the sorts being measured.
+     */
+    private interface Sort {
+        /**
+         * Sorts the array in place.
+         *
+         * @param arr the array to sort
+         * @param comparator the Comparator used to compare the data in arr
+         */
+        void sort(Integer[] arr, Comparator<Integer> comparator);
+    }
+
+    /**
+     * Runs the benchmark and prints one line per algorithm.
+     *
+     * @param args optional array size and number of measured iterations
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SIZE;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1])
+                : DEFAULT_ITERATIONS;
+        Integer[] data = new Integer[size];
+        Random rand = new Random(1332);
+        for (int i = 0; i < size; i++) {
+            data[i] = rand.nextInt();
+        }
+        Comparator<Integer> comparator = Integer::compare;
+
+        long merge = measure("mergeSort", Sorting::mergeSort, data,
+                comparator, iterations);
+        long buffered = measure("bufferedMergeSort",
+                Sorting::bufferedMergeSort, data, comparator, iterations);
+        System.out.printf("allocation reduction: %.1fx%n",
+                (double) merge / Math.max(1, buffered));
+    }
+
+    /**
+     * Warms up and then measures one sort over copies of the same data.
+     *
+     * @param name the name to print for the sort
+     * @param sort the sort being measured
+     * @param data the unsorted input, which is copied before every run
+     * @param comparator the Comparator used to compare the data
+     * @param iterations the number of measured runs
+     * @return the average number of bytes allocated per sort
+     */
+    private static long measure(String name, Sort sort, Integer[] data,
+                                Comparator<Integer> comparator,
+                                int iterations) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sort.sort(data.clone(), comparator);
+        }
+        long bytes = 0;
+        long nanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            Integer[] arr = data.clone();
+            long startBytes = allocatedBytes();
+            long startNanos = System.nanoTime();
+            sort.sort(arr, comparator);
+            nanos += System.nanoTime() - startNanos;
+            bytes += allocatedBytes() - startBytes;
+        }
+        long avgBytes = bytes / iterations;
+        System.out.printf("%-18s %,14d bytes/op %,10.2f ms/op%n", name,
+                avgBytes, nanos / 1e6 / iterations);
+        return avgBytes;
+    }
+
+    /**
+     * Reads the number of bytes allocated so far by the current thread.
+     *
+     * @return the allocated byte count
+     */
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean)
+                ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,274 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.function.LongConsumer;
+
+/**
+ * Searches text that arrives in pieces, from a Reader, a ReadableByteChannel
+ * or a (memory-mapped) ByteBuffer, with memory bounded by the chunk size
+ * instead of the text size.
+ *
+ * Each chunk is searched with a {@link CompiledPattern}, so any of its
+ * algorithms (KMP, Boyer-Moore, Rabin-Karp) can be used. The matcher state
+ * carried from one chunk to the next is the last m - 1 chars of the chunk,
+ * which are searched again in front of the next one. A match is m chars
+ * long, so it can never lie entirely inside the carried chars, and every
+ * match is therefore reported exactly once, with its absolute offset from
+ * the start of the stream.
+ *
+ * Bytes are read as Latin-1: byte b is the char {@code b & 0xFF}. To search
+ * for a byte pattern, compile {@code new String(bytes, ISO_8859_1)}. Byte
+ * sources are read in place through a CharSequence view, so mapped files are
+ * never copied into the heap.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class StreamingSearch {
+
+    /**
+     * Number of chars or bytes read per chunk from a Reader or a channel.
+     */
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * Largest number of bytes mapped at once from a FileChannel.
+     */
+    static final int MAP_WINDOW = 1 << 30;
+
+    /**
+     * Prevents instantiation, all methods are static.
+     */
+    private StreamingSearch() {
+    }
+
+    /**
+     * Searches all chars of a Reader, until the end of the stream. The
+     * Reader is not closed.
+     *
+     * @throws IllegalArgumentException if any input is null
+     * @throws IOException if reading fails
+     * @param pattern the compiled pattern to search for
+     * @param in the Reader to search
+     * @param onMatch receives the absolute starting offset of each match,
+     * in ascending order
+     * @return the number of matches
+     */
+    public static long search(CompiledPattern pattern, Reader in,
+                              LongConsumer onMatch) throws IOException {
+        checkInputs(pattern, in, onMatch);
+        int overlap = pattern.length() - 1;
+        char[] buffer = new char[CHUNK_SIZE + overlap];
+        long count = 0;
+        long base = 0;
+        int kept = 0;
+        boolean done = false;
+        while (!done) {
+            int length = kept;
+            int read = 0;
+            while (length < buffer.length && read != -1) {
+                read = in.read(buffer, length, buffer.length - length);
+                length += Math.max(read, 0);
+            }
+            done = read == -1;
+            if (length > kept) {
+                count += scan(pattern, CharBuffer.wrap(buffer, 0, length),
+                        base, onMatch);
+            }
+            kept = Math.min(overlap, length);
+            System.arraycopy(buffer, length - kept, buffer, 0, kept);
+            base += length - kept;
+        }
+        return count;
+    }
+
+    /**
+     * Searches all bytes of a blocking channel, until the end of the stream.
+     * The channel is not closed.
+     *
+     * @throws IllegalArgumentException if any input is null
+     * @throws IOException if reading fails
+     * @param pattern the compiled pattern to search for
+     * @param in the channel to search
+     * @param onMatch receives the absolute starting offset of each match,
+     * in ascending order
+     * @return the number of matches
+     */
+    public static long search(CompiledPattern pattern, ReadableByteChannel in,
+                              LongConsumer onMatch) throws IOException {
+        checkInputs(pattern, in, onMatch);
+        int overlap = pattern.length() - 1;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE + overlap);
+        long count = 0;
+        long base = 0;
+        int kept = 0;
+        boolean done = false;
+        while (!done) {
+            int read = 0;
+            while (buffer.hasRemaining() && read != -1) {
+                read = in.read(buffer);
+            }
+            done = read == -1;
+            buffer.flip();
+            int length = buffer.limit();
+            if (length > kept) {
+                count += scan(pattern, new ByteSequence(buffer, 0, length),
+                        base, onMatch);
+            }
+            kept = Math.min(overlap, length);
+            buffer.position(length - kept);
+            buffer.compact();
+            base += length - kept;
+        }
+        return count;
+    }
+
+    /**
+     * Searches the bytes between the position and the limit of a buffer,
+     * such as a MappedByteBuffer, without copying them. The buffer's
+     * position is not changed.
+     *
+     * @throws IllegalArgumentException if any input is null
+     * @param pattern the compiled pattern to search for
+     * @param buffer the buffer to search
+     * @param onMatch receives the absolute index in the buffer of the start
+     * of each match, in ascending order
+     * @return the number of matches
+     */
+    public static long search(CompiledPattern pattern, ByteBuffer buffer,
+                              LongConsumer onMatch) {
+        checkInputs(pattern, buffer, onMatch);
+        int from = buffer.position();
+        return scan(pattern, new ByteSequence(buffer, from,
+                buffer.limit() - from), from, onMatch);
+    }
+
+    /**
+     * Searches a whole file by mapping it into memory, one window of at most
+     * {@link #MAP_WINDOW} bytes at a time, so files larger than 2 GB work
+     * too. Nothing is read into the heap. The channel's position is ignored
+     * and not changed.
+     *
+     * @throws IllegalArgumentException if any input is null
+     * @throws IOException if mapping fails
+     * @param pattern the compiled pattern to search for
+     * @param file the file to search, open for reading
+     * @param onMatch receives the absolute file offset of the start of each
+     * match, in ascending order
+     * @return the number of matches
+     */
+    public static long searchMapped(CompiledPattern pattern, FileChannel file,
+                                    LongConsumer onMatch) throws IOException {
+        checkInputs(pattern, file, onMatch);
+        int overlap = pattern.length() - 1;
+        long size = file.size();
+        long count = 0;
+        long base = 0;
+        while (true) {
+            int length = (int) Math.min(MAP_WINDOW, size - base);
+            ByteBuffer window = file.map(FileChannel.MapMode.READ_ONLY, base,
+                    length);
+            count += scan(pattern, new ByteSequence(window, 0, length), base,
+                    onMatch);
+            if (base + length >= size) {
+                return count;
+            }
+            base += length - overlap;
+        }
+    }
+
+    /**
+     * Rejects null inputs.
+     *
+     * @throws IllegalArgumentException if any input is null
+     * @param pattern the compiled pattern
+     * @param source the text source
+     * @param onMatch the match callback
+     */
+    private static void checkInputs(CompiledPattern pattern, Object source,
+                                    LongConsumer onMatch) {
+        if (pattern == null || source == null || onMatch == null) {
+            throw new IllegalArgumentException("The pattern, source or"
+                    + " callback is null, please use a valid input next"
+                    + " time.");
+        }
+    }
+
+    /**
+     * Searches one window and reports the matches shifted by its offset.
+     *
+     * @param pattern the compiled pattern
+     * @param window the chars of the window
+     * @param base the absolute offset of the window's first char
+     * @param onMatch receives the absolute offset of each match
+     * @return the number of matches in the window
+     */
+    private static long scan(CompiledPattern pattern, CharSequence window,
+                             long base, LongConsumer onMatch) {
+        long[] count = new long[1];
+        pattern.scan(window, 0, i -> {
+            onMatch.accept(base + i);
+            count[0]++;
+            return true;
+        });
+        return count[0];
+    }
+
+    /**
+     * Read-only view of a range of a ByteBuffer as Latin-1 chars. Uses
+     * absolute gets, so it never moves the buffer's position.
+     */
+    static final class ByteSequence implements CharSequence {
+        private final ByteBuffer buffer;
+        private final int offset;
+        private final int length;
+
+        /**
+         * Creates a view of buffer[offset, offset + length).
+         *
+         * @param buffer the buffer to view
+         * @param offset the index of the first byte
+         * @param length the number of bytes
+         */
+        ByteSequence(ByteBuffer buffer, int offset, int length) {
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index
+                        + " is out of bounds for length " + length);
+            }
+            return (char) (buffer.get(offset + index) & 0xFF);
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("Range [" + start + ", "
+                        + end + ") is out of bounds for length " + length);
+            }
+            return new ByteSequence(buffer, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) (buffer.get(offset + i) & 0xFF);
+            }
+            return new String(chars);
+        }
+    }
+}
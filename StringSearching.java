@@ -1,7 +1,9 @@
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.function.IntPredicate;
 
 /**
  * Your implementations of various string searching algorithms.
@@ -11,6 +13,156 @@ import java.util.HashMap;
  */
 public class StringSearching {
 
+    /**
+     * Receives the metrics of every search, or null to collect none. A
+     * search reads the field once; with no listener that one volatile read
+     * is the only cost instrumentation adds.
+     */
+    private static volatile SearchMetricsListener metricsListener;
+
+    /**
+     * Installs a listener that receives the {@link SearchMetrics} of every
+     * later call of kmp, boyerMoore, rabinKarp and the single pattern
+     * search, on any thread. Passing null turns metrics off again.
+     *
+     * While a listener is installed, each search runs the compiled form of
+     * its algorithm with counters enabled and the text wrapped in a
+     * {@link CountingCharSequence}, which returns the same matches but is
+     * somewhat slower.
+     *
+     * @param listener the listener to notify, or null
+     */
+    public static void setMetricsListener(SearchMetricsListener listener) {
+        metricsListener = listener;
+    }
+
+    /**
+     * Gets the installed metrics listener.
+     *
+     * @return the listener, or null if metrics are off
+     */
+    public static SearchMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * Picks the algorithm used by {@link #search(CharSequence, CharSequence)}.
+     */
+    private static volatile SearchSelector selector = new SearchSelector();
+
+    /**
+     * Replaces the selector used by search, e.g. with one whose thresholds
+     * were tuned on benchmark data. Patterns cached by the old selector are
+     * dropped with it.
+     *
+     * @throws IllegalArgumentException if the selector is null
+     * @param selector the selector to use
+     */
+    public static void setSelector(SearchSelector selector) {
+        if (selector == null) {
+            throw new IllegalArgumentException("Selector cannot be null.");
+        }
+        StringSearching.selector = selector;
+    }
+
+    /**
+     * Gets the selector used by search.
+     *
+     * @return the selector
+     */
+    public static SearchSelector getSelector() {
+        return selector;
+    }
+
+    /**
+     * Finds every occurrence of the pattern in the text with whichever
+     * algorithm suits the pattern and text best: a memchr-style scan for
+     * tiny patterns and short texts, KMP for periodic patterns and
+     * Boyer-Moore for long patterns over large alphabets. The compiled
+     * pattern is cached, so searching for the same pattern again skips the
+     * preprocessing. See {@link SearchSelector} for the exact rules.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @throws IllegalArgumentException if text is null
+     * @param pattern the pattern you are searching for in a body of text
+     * @param text the body of text where you search for the pattern
+     * @return list containing the starting index for each match found
+     */
+    public static List<Integer> search(CharSequence pattern,
+            CharSequence text) {
+        if (pattern == null || pattern.length() == 0 || text == null) {
+            throw new IllegalArgumentException("Input pattern or text is null"
+                    + ", please enter valid inputs next time.");
+        }
+        CompiledPattern compiled = selector.select(pattern, text.length());
+        SearchMetricsListener listener = metricsListener;
+        if (listener != null) {
+            return measure(compiled, text, 1, listener);
+        }
+        return compiled.findAll(text);
+    }
+
+    /**
+     * Finds every occurrence of any of several patterns in the text, with a
+     * single Aho-Corasick pass however many patterns there are.
+     *
+     * @throws IllegalArgumentException if the list, any pattern or the text
+     * is null, or any pattern is of length 0
+     * @param patterns the patterns you are searching for
+     * @param text the body of text where you search for the patterns
+     * @return every match with the index of its pattern, in order of end
+     * index
+     */
+    public static List<AhoCorasick.Match> search(
+            List<? extends CharSequence> patterns, CharSequence text) {
+        return selector.search(patterns, text);
+    }
+
+    /**
+     * Runs a compiled pattern over the text with metrics enabled and passes
+     * them to the listener.
+     *
+     * @param compiled the compiled pattern
+     * @param text the body of text to search
+     * @param gap the smallest distance between two reported matches, 1 to
+     * report overlapping matches
+     * @param listener the listener to notify
+     * @return list containing the starting index for each match found
+     */
+    private static List<Integer> measure(CompiledPattern compiled,
+                                         CharSequence text, int gap,
+                                         SearchMetricsListener listener) {
+        SearchMetrics metrics = new SearchMetrics(compiled.algorithm(),
+                compiled.length(), text.length());
+        CountingCharSequence counted = new CountingCharSequence(text);
+        List<Integer> matches = new ArrayList<>();
+        long start = System.nanoTime();
+        compiled.scan(counted, 0, collector(matches, gap), metrics);
+        metrics.finish(counted.getCount(), matches.size(),
+                System.nanoTime() - start);
+        listener.searchFinished(metrics);
+        return matches;
+    }
+
+    /**
+     * Creates a scan callback that adds each match to a list, skipping any
+     * match that starts less than gap chars after the last one added.
+     *
+     * @param matches the list to add to
+     * @param gap the smallest distance between two added matches
+     * @return the callback, which always continues the scan
+     */
+    static IntPredicate collector(List<Integer> matches, int gap) {
+        int[] next = {0};
+        return i -> {
+            if (i >= next[0]) {
+                matches.add(i);
+                next[0] = i + gap;
+            }
+            return true;
+        };
+    }
+
     /**
      * Knuth-Morris-Pratt (KMP) algorithm that relies on the failure table (also
      * called failure function). Works better with small alphabets.
@@ -28,6 +180,10 @@ public class StringSearching {
             throw new IllegalArgumentException("Input pattern or text is null"
                     + ", please enter valid inputs next time.");
         }
+        SearchMetricsListener listener = metricsListener;
+        if (listener != null) {
+            return measure(new KmpPattern(pattern), text, 1, listener);
+        }
         if (pattern.length() > text.length()) {
             return new LinkedList<>();
         }
@@ -112,8 +268,14 @@ public class StringSearching {
      * Boyer Moore algorithm that relies on last occurrence table. Works better
      * with large alphabets.
      *
-     * Make sure to implement the last occurrence table before implementing this
-     * method.
+     * Compiles the pattern into a {@link BoyerMoorePattern}, which uses a flat
+     * array last occurrence table together with the good suffix rule. To
+     * search several texts for the same pattern, compile it once and call
+     * {@link BoyerMoorePattern#findAll(CharSequence)} instead.
+     *
+     * Unlike kmp and rabinKarp, this skips the whole pattern length after a
+     * match, so overlapping matches are not reported: "aa" in "aaaa" gives
+     * [0, 2]. BoyerMoorePattern itself reports every match, [0, 1, 2].
      *
      * @throws IllegalArgumentException if the pattern is null or of length 0
      * @throws IllegalArgumentException if text is null
@@ -127,41 +289,17 @@ public class StringSearching {
             throw new IllegalArgumentException("Input pattern or text is null"
                     + ", please enter valid inputs next time.");
         }
+        SearchMetricsListener listener = metricsListener;
+        if (listener != null) {
+            return measure(new BoyerMoorePattern(pattern), text,
+                    pattern.length(), listener);
+        }
         if (pattern.length() > text.length()) {
             return new LinkedList<>();
         }
-        Map<Character, Integer> lastTable = buildLastTable(pattern);
-        int m = pattern.length();
-        int n = text.length();
-        LinkedList<Integer> matches = new LinkedList<>();
-        int skip;
-        int i = 0;
-        while (i <= n - m) {
-            int j = m - 1;
-            char x = pattern.charAt(j);
-            char y = text.charAt(i + j);
-            while (j >= 0 && x == y) {
-                j--;
-                if (j >= 0) {
-                    x = pattern.charAt(j);
-                    y = text.charAt(i + j);
-                }
-            }
-            if (j == -1) {
-                matches.add(i);
-                skip = m;
-            } else {
-                int ind;
-                Integer val = lastTable.get(y);
-                if (val == null) {
-                    ind = -1;
-                } else {
-                    ind = val;
-                }
-                skip = j - ind;
-            }
-            i += skip;
-        }
+        List<Integer> matches = new ArrayList<>();
+        new BoyerMoorePattern(pattern).scan(text, 0,
+                collector(matches, pattern.length()));
         return matches;
     }
 
@@ -213,11 +351,25 @@ public class StringSearching {
     private static final int BASE = 661;
 
     /**
-     * A map from integers representing an exponent to integers
-     * representing {@code BASE} to that exponent. Used to recall certain
-     * powers of the BASE when generating or updating the hash.
+     * Number of powers of {@code BASE} kept in {@link #BASE_POWERS}.
      */
-    private static Map<Integer, Integer> baseMap = new HashMap<>();
+    private static final int CACHED_POWERS = 1 << 10;
+
+    /**
+     * Powers of {@code BASE}, where entry i is BASE ^ i with int overflow.
+     * Used to recall the power of the BASE needed when updating the hash
+     * of a pattern shorter than {@link #CACHED_POWERS}; larger powers are
+     * computed by {@link #basePower(int)}. Never written after class
+     * initialization, so it can be read from any thread.
+     */
+    private static final int[] BASE_POWERS = new int[CACHED_POWERS];
+
+    static {
+        BASE_POWERS[0] = 1;
+        for (int i = 1; i < CACHED_POWERS; i++) {
+            BASE_POWERS[i] = BASE_POWERS[i - 1] * BASE;
+        }
+    }
 
     /**
      * Runs Rabin-Karp algorithm. Generate the pattern hash, and compare it with
@@ -225,6 +377,10 @@ public class StringSearching {
      * If the two hashes match, compare their individual characters, else update
      * the text hash and continue.
      *
+     * Compiles the pattern into a {@link RabinKarpPattern}, which hashes modulo
+     * the Mersenne prime 2^61 - 1 so that spurious hash matches are rare, and
+     * keeps all of its state in the instance. Safe to call from many threads.
+     *
      * @throws IllegalArgumentException if the pattern is null or of length 0
      * @throws IllegalArgumentException if text is null
      * @param pattern a string you're searching for in a body of text
@@ -237,33 +393,15 @@ public class StringSearching {
             throw new IllegalArgumentException("Input pattern or text is null"
                     + ", please enter valid inputs next time.");
         }
+        SearchMetricsListener listener = metricsListener;
+        if (listener != null) {
+            return measure(new RabinKarpPattern(pattern), text, 1,
+                    listener);
+        }
         if (pattern.length() > text.length()) {
             return new LinkedList<>();
         }
-        int m = pattern.length();
-        int n = text.length();
-        LinkedList<Integer> matches = new LinkedList<>();
-        int patternHash = generateHash(pattern, m);
-        int textHash = generateHash(text, m);
-        int i = 0;
-        int j;
-        while (i <= n - m) {
-            if (patternHash == textHash) {
-                j = 0;
-                while (j < m && text.charAt(i + j) == pattern.charAt(j)) {
-                    j++;
-                }
-                if (j == m) {
-                    matches.add(i);
-                }
-            }
-            i++;
-            if (i <= n - m) {
-                textHash = updateHash(textHash, m, text.charAt(i - 1),
-                        text.charAt(i - 1 + m));
-            }
-        }
-        return matches;
+        return new RabinKarpPattern(pattern).findAll(text);
     }
 
     /**
@@ -300,16 +438,11 @@ public class StringSearching {
             throw new IllegalArgumentException("Length " + length + " is "
                     + "invalid, please use a valid input next time.");
         }
-        baseMap.put(0, 1);
-        int i = 1;
-        while (i < length) {
-            baseMap.put(i, BASE * baseMap.get(i - 1));
-            i++;
-        }
+        // Horner's rule gives the same sum, overflow included, with no powers
         int j = 0;
         int hash = 0;
         while (j < length) {
-            hash += current.charAt(j) * baseMap.get(length - 1 - j);
+            hash = hash * BASE + current.charAt(j);
             j++;
         }
         return hash;
@@ -346,6 +479,29 @@ public class StringSearching {
             throw new IllegalArgumentException("Length " + length + " is "
                     + "invalid, please use a valid input next time.");
         }
-        return (oldHash - oldChar * baseMap.get(length - 1)) * BASE + newChar;
+        return (oldHash - oldChar * basePower(length - 1)) * BASE + newChar;
+    }
+
+    /**
+     * Returns BASE ^ exponent with int overflow, from {@link #BASE_POWERS}
+     * when the exponent is small enough and by square-and-multiply
+     * otherwise, which takes at most 31 squarings.
+     *
+     * @param exponent the power to raise BASE to, at least 0
+     * @return BASE ^ exponent with int overflow
+     */
+    private static int basePower(int exponent) {
+        if (exponent < CACHED_POWERS) {
+            return BASE_POWERS[exponent];
+        }
+        int result = 1;
+        int square = BASE;
+        for (int e = exponent; e != 0; e >>>= 1) {
+            if ((e & 1) != 0) {
+                result *= square;
+            }
+            square *= square;
+        }
+        return result;
     }
 }
@@ -0,0 +1,431 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Suffix array index over a fixed text, for answering many pattern queries
+ * without scanning the whole text each time.
+ *
+ * The suffix array lists the starting index of every suffix of the text in
+ * sorted order, so all occurrences of a pattern are one contiguous range of
+ * it, found by binary search in O(m log n). The search is accelerated with
+ * the common prefix lengths of the pattern and the two range boundaries:
+ * the pattern already matches the first min(l, r) chars of every suffix in
+ * between, so comparisons resume from there, which makes long patterns
+ * close to O(m + log n) in practice.
+ *
+ * The suffix array is built by prefix doubling. Round k ranks every suffix
+ * by its first 2^k chars, by radix sorting the pairs (rank of i, rank of
+ * i + 2^(k - 1)) packed into longs with {@link ParallelRadixSort}, which
+ * makes a round O(n) and the build O(n log n). The LCP array, holding the
+ * longest common prefix of each pair of neighboring suffixes, is then
+ * computed in O(n) with Kasai's algorithm.
+ *
+ * An index can be saved to a file and loaded back by memory mapping it, so
+ * a service can start without rebuilding the index or reading it into the
+ * heap. A file takes 10 bytes per char of text, which limits a saved index
+ * to texts of about 200 million chars.
+ *
+ * Instances are immutable and can be shared freely between threads.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class SuffixArrayIndex {
+
+    /**
+     * First int of every index file.
+     */
+    private static final int MAGIC = 0x53414958;
+
+    /**
+     * Format version written after the magic number.
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Bytes before the tables in an index file: magic, version and length.
+     */
+    private static final int HEADER_BYTES = 12;
+
+    /**
+     * Size of the buffer used when saving an index.
+     */
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private final CharBuffer text;
+    private final IntBuffer suffixes;
+    private final IntBuffer lcp;
+
+    /**
+     * Wraps the tables of an index.
+     *
+     * @param text the indexed text
+     * @param suffixes the suffix array
+     * @param lcp the LCP array
+     */
+    private SuffixArrayIndex(CharBuffer text, IntBuffer suffixes,
+                             IntBuffer lcp) {
+        this.text = text;
+        this.suffixes = suffixes;
+        this.lcp = lcp;
+    }
+
+    /**
+     * Builds the index of a text.
+     *
+     * Have a worst case running time of:
+     *  O(n log n)
+     *
+     * @throws IllegalArgumentException if text is null
+     * @param text the text to index, which is copied
+     * @return the index
+     */
+    public static SuffixArrayIndex build(CharSequence text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Input text is null, please"
+                    + " enter a valid input next time.");
+        }
+        int n = text.length();
+        char[] chars = new char[n];
+        for (int i = 0; i < n; i++) {
+            chars[i] = text.charAt(i);
+        }
+        int[] sa = buildSuffixArray(chars);
+        int[] lcp = buildLcpArray(chars, sa);
+        return new SuffixArrayIndex(CharBuffer.wrap(chars),
+                IntBuffer.wrap(sa), IntBuffer.wrap(lcp));
+    }
+
+    /**
+     * Sorts the suffixes by prefix doubling. The chars themselves serve as
+     * the initial ranks. Ranks start at 1, so that 0 can stand for the empty
+     * suffix past the end of the text, which sorts first.
+     *
+     * @param chars the text
+     * @return the suffix array
+     */
+    private static int[] buildSuffixArray(char[] chars) {
+        int n = chars.length;
+        int[] rank = new int[n];
+        for (int i = 0; i < n; i++) {
+            rank[i] = chars[i] + 1;
+        }
+        int[] order = new int[0];
+        long[] keys = new long[n];
+        for (int k = 1; n > 0; k *= 2) {
+            for (int i = 0; i < n; i++) {
+                int next = i + k < n ? rank[i + k] : 0;
+                keys[i] = ((long) rank[i] << 32) | next;
+            }
+            order = ParallelRadixSort.sortedOrder(keys);
+            int distinct = 0;
+            for (int i = 0; i < n; i++) {
+                if (i == 0 || keys[order[i]] != keys[order[i - 1]]) {
+                    distinct++;
+                }
+                rank[order[i]] = distinct;
+            }
+            if (distinct == n) {
+                break;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Computes the LCP array with Kasai's algorithm. Entry i is the length
+     * of the longest common prefix of the suffixes at sa[i - 1] and sa[i],
+     * and entry 0 is 0.
+     *
+     * Visiting suffixes in text order, the common prefix with the previous
+     * suffix in sorted order shrinks by at most one from one suffix to the
+     * next, so h is only ever decreased n times in total.
+     *
+     * @param chars the text
+     * @param sa the suffix array
+     * @return the LCP array
+     */
+    private static int[] buildLcpArray(char[] chars, int[] sa) {
+        int n = chars.length;
+        int[] inverse = new int[n];
+        for (int i = 0; i < n; i++) {
+            inverse[sa[i]] = i;
+        }
+        int[] lcp = new int[n];
+        int h = 0;
+        for (int i = 0; i < n; i++) {
+            if (inverse[i] == 0) {
+                h = 0;
+                continue;
+            }
+            int j = sa[inverse[i] - 1];
+            while (i + h < n && j + h < n && chars[i + h] == chars[j + h]) {
+                h++;
+            }
+            lcp[inverse[i]] = h;
+            if (h > 0) {
+                h--;
+            }
+        }
+        return lcp;
+    }
+
+    /**
+     * Returns the length of the indexed text.
+     *
+     * @return the length of the text
+     */
+    public int length() {
+        return text.limit();
+    }
+
+    /**
+     * Returns the starting index of the suffix at a rank.
+     *
+     * @throws IndexOutOfBoundsException if rank is not in [0, length)
+     * @param rank the position of the suffix in sorted order
+     * @return the starting index of the suffix in the text
+     */
+    public int suffix(int rank) {
+        return suffixes.get(rank);
+    }
+
+    /**
+     * Returns the length of the longest common prefix of the suffixes at
+     * ranks rank - 1 and rank, or 0 for rank 0.
+     *
+     * @throws IndexOutOfBoundsException if rank is not in [0, length)
+     * @param rank the position of the suffix in sorted order
+     * @return the common prefix length
+     */
+    public int lcp(int rank) {
+        return lcp.get(rank);
+    }
+
+    /**
+     * Counts the occurrences of a pattern in the text.
+     *
+     * Have a worst case running time of:
+     *  O(m log n)
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to count
+     * @return the number of occurrences
+     */
+    public int count(CharSequence pattern) {
+        checkPattern(pattern);
+        return bound(pattern, true) - bound(pattern, false);
+    }
+
+    /**
+     * Returns whether a pattern occurs in the text.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to look for
+     * @return true if the pattern occurs at least once
+     */
+    public boolean contains(CharSequence pattern) {
+        return count(pattern) > 0;
+    }
+
+    /**
+     * Finds every occurrence of a pattern in the text, including
+     * overlapping ones.
+     *
+     * Have a worst case running time of:
+     *  O(m log n + occ log occ)
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to find
+     * @return the starting index of each occurrence, in ascending order
+     */
+    public MatchList occurrences(CharSequence pattern) {
+        checkPattern(pattern);
+        int lo = bound(pattern, false);
+        int hi = bound(pattern, true);
+        int[] starts = new int[hi - lo];
+        for (int i = lo; i < hi; i++) {
+            starts[i - lo] = suffixes.get(i);
+        }
+        ParallelRadixSort.sort(starts);
+        MatchList matches = new MatchList();
+        for (int start : starts) {
+            matches.add(start);
+        }
+        return matches;
+    }
+
+    /**
+     * Rejects an invalid pattern.
+     *
+     * @throws IllegalArgumentException if the pattern is null or of length 0
+     * @param pattern the pattern to check
+     */
+    private static void checkPattern(CharSequence pattern) {
+        if (pattern == null || pattern.length() == 0) {
+            throw new IllegalArgumentException("Input pattern is null or"
+                    + " empty, please enter a valid input next time.");
+        }
+    }
+
+    /**
+     * Binary searches the suffix array for one end of the range of suffixes
+     * that start with the pattern. Every suffix between the boundaries L and
+     * R shares at least min(l, r) chars with the pattern, where l and r are
+     * the pattern's common prefixes with the suffixes at L and R, so each
+     * comparison starts there.
+     *
+     * @param pattern the pattern
+     * @param upper false for the first rank whose suffix starts with the
+     * pattern or sorts after it, true for the first rank whose suffix sorts
+     * after the pattern and does not start with it
+     * @return the rank found, in [0, length]
+     */
+    private int bound(CharSequence pattern, boolean upper) {
+        int n = text.limit();
+        int m = pattern.length();
+        int left = -1;
+        int right = n;
+        int l = 0;
+        int r = 0;
+        while (right - left > 1) {
+            int mid = (left + right) >>> 1;
+            int s = suffixes.get(mid);
+            int h = Math.min(l, r);
+            while (h < m && s + h < n
+                    && text.get(s + h) == pattern.charAt(h)) {
+                h++;
+            }
+            boolean after;
+            if (h == m) {
+                after = !upper;
+            } else if (s + h == n) {
+                after = false;
+            } else {
+                after = text.get(s + h) > pattern.charAt(h);
+            }
+            if (after) {
+                right = mid;
+                r = h;
+            } else {
+                left = mid;
+                l = h;
+            }
+        }
+        return right;
+    }
+
+    /**
+     * Writes the index to a file, replacing the file if it exists.
+     *
+     * @throws IllegalArgumentException if file is null
+     * @throws IOException if writing fails
+     * @param file the file to write
+     */
+    public void save(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Input file is null, please"
+                    + " enter a valid input next time.");
+        }
+        int n = text.limit();
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(n);
+            for (int i = 0; i < n; i++) {
+                buffer = drainIfFull(channel, buffer, Character.BYTES);
+                buffer.putChar(text.get(i));
+            }
+            for (IntBuffer table : new IntBuffer[] {suffixes, lcp}) {
+                for (int i = 0; i < n; i++) {
+                    buffer = drainIfFull(channel, buffer, Integer.BYTES);
+                    buffer.putInt(table.get(i));
+                }
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Writes out a buffer that has no room for another value.
+     *
+     * @throws IOException if writing fails
+     * @param channel the channel to write to
+     * @param buffer the buffer being filled
+     * @param needed the bytes about to be put
+     * @return the buffer, cleared if it was written
+     */
+    private static ByteBuffer drainIfFull(FileChannel channel,
+                                          ByteBuffer buffer, int needed)
+            throws IOException {
+        if (buffer.remaining() < needed) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+        return buffer;
+    }
+
+    /**
+     * Loads an index saved with {@link #save(Path)} by memory mapping the
+     * file. The tables are read from the mapping on demand and never copied
+     * into the heap. The mapping stays valid after the file is closed.
+     *
+     * @throws IllegalArgumentException if file is null
+     * @throws IOException if reading fails or the file is not a valid index
+     * @param file the file to load
+     * @return the index
+     */
+    public static SuffixArrayIndex load(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Input file is null, please"
+                    + " enter a valid input next time.");
+        }
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException(file + " is not a suffix array index.");
+            }
+            ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    size);
+            int n = map.getInt(8);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION
+                    || n < 0 || size != HEADER_BYTES + 10L * n) {
+                throw new IOException(file + " is not a suffix array index.");
+            }
+            int textStart = HEADER_BYTES;
+            int saStart = textStart + 2 * n;
+            int lcpStart = saStart + 4 * n;
+            return new SuffixArrayIndex(
+                    slice(map, textStart, 2 * n).asCharBuffer(),
+                    slice(map, saStart, 4 * n).asIntBuffer(),
+                    slice(map, lcpStart, 4 * n).asIntBuffer());
+        }
+    }
+
+    /**
+     * Returns a view of length bytes of a buffer starting at offset.
+     *
+     * @param buffer the buffer
+     * @param offset the index of the first byte
+     * @param length the number of bytes
+     * @return the view
+     */
+    private static ByteBuffer slice(ByteBuffer buffer, int offset,
+                                    int length) {
+        return buffer.duplicate().position(offset).limit(offset + length)
+                .slice();
+    }
+}
@@ -0,0 +1,114 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Exact streaming top-K: keeps the k largest elements seen so far, according
+ * to a Comparator, using a bounded min-heap. Memory is O(k) regardless of how
+ * many elements are offered, and each offer costs O(log k).
+ *
+ * To keep the k smallest elements instead, pass a reversed comparator.
+ *
+ * Instances are not thread-safe. Build one per thread or shard and combine
+ * them with {@link #merge(TopK)}.
+ *
+ * @param <T> the type of element being tracked
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public class TopK<T> {
+
+    private final int k;
+    private final Comparator<T> comparator;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * Creates an empty top-K tracker.
+     *
+     * @throws IllegalArgumentException if k is less than 1 or the comparator
+     * is null
+     * @param k the number of largest elements to keep
+     * @param comparator the Comparator used to compare elements
+     */
+    public TopK(int k, Comparator<T> comparator) {
+        if (k < 1 || comparator == null) {
+            throw new IllegalArgumentException("k must be at least 1 and the"
+                    + " comparator must not be null.");
+        }
+        this.k = k;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(k, comparator);
+    }
+
+    /**
+     * Offers an element to the tracker. It is kept if fewer than k elements
+     * are held or if it is larger than the smallest element held.
+     *
+     * @throws IllegalArgumentException if data is null
+     * @param data the element to offer
+     * @return true if the element was kept
+     */
+    public boolean offer(T data) {
+        if (data == null) {
+            throw new IllegalArgumentException("Data cannot be null.");
+        }
+        if (heap.size() < k) {
+            heap.add(data);
+            return true;
+        } else if (comparator.compare(data, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(data);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds every element held by another tracker to this one. The result is
+     * the top k of the union of both streams.
+     *
+     * @throws IllegalArgumentException if other is null
+     * @param other the tracker to merge into this one, which is not modified
+     */
+    public void merge(TopK<T> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Cannot merge a null TopK.");
+        }
+        // Offering may change the heap being read when other is this
+        for (T data : new ArrayList<>(other.heap)) {
+            offer(data);
+        }
+    }
+
+    /**
+     * Gets the number of elements currently held, at most k.
+     *
+     * @return the number of elements held
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Gets the smallest element currently held, which is the kth largest
+     * element seen once at least k elements have been offered.
+     *
+     * @return the smallest element held, or null if none are held
+     */
+    public T threshold() {
+        return heap.peek();
+    }
+
+    /**
+     * Returns the elements held, largest first.
+     *
+     * @return a new list of the held elements in descending order
+     */
+    public List<T> toSortedList() {
+        List<T> list = new ArrayList<>(heap);
+        list.sort(Collections.reverseOrder(comparator));
+        return list;
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line, but
+ * writes JSON results to jmh-result.json and enables the GC profiler unless
+ * told otherwise, so every run records time and allocation per operation in
+ * a file that can be compared across releases.
+ *
+ * Examples:
+ *  java -jar jmh/target/benchmarks.jar
+ *  java -jar jmh/target/benchmarks.jar SortingBenchmarks.mergeSort
+ *      -p shape=RANDOM -rff merge-sort.json
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class BenchmarkMain {
+
+    /**
+     * Default file the JSON results are written to.
+     */
+    private static final String RESULT_FILE = "jmh-result.json";
+
+    /**
+     * Prevents instantiation, all methods are static.
+     */
+    private BenchmarkMain() {
+    }
+
+    /**
+     * Runs the benchmarks selected on the command line.
+     *
+     * @param args JMH command line options
+     * @throws CommandLineOptionException if the options cannot be parsed
+     * @throws RunnerException if a benchmark fails
+     * @throws IOException if listing the benchmarks fails
+     */
+    public static void main(String[] args) throws
+            CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        if (cmd.shouldHelp() || cmd.shouldList()
+                || cmd.shouldListWithParams() || cmd.shouldListProfilers()
+                || cmd.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(cmd);
+        if (!cmd.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cmd.getResult().hasValue()) {
+            builder.result(RESULT_FILE);
+        }
+        if (cmd.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,219 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the graph algorithms in GraphAlgs.
+ *
+ * Every graph is undirected and connected: a random spanning tree plus
+ * random extra edges up to the requested average degree. Each edge is stored
+ * once per direction and all weights are distinct, so the minimum spanning
+ * tree is unique and both MST algorithms do the same amount of work.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GraphAlgsBenchmarks {
+
+    @Param({"100", "1000"})
+    public int vertices;
+
+    @Param({"4", "32"})
+    public int degree;
+
+    private Object start;
+    private Object adjList;
+    private Object adjMatrix;
+    private Object csr;
+
+    /**
+     * Generates the graph in every representation once per trial.
+     *
+     * @throws Throwable never, the constructors throw no checked exceptions
+     */
+    @Setup
+    public void generate() throws Throwable {
+        Random rand = new Random(Inputs.SEED);
+        List<Object> vertexList = new ArrayList<>(vertices);
+        for (int i = 0; i < vertices; i++) {
+            vertexList.add((Object) Targets.NEW_VERTEX.invokeExact(
+                    (Object) Integer.valueOf(i), i));
+        }
+        start = vertexList.get(0);
+
+        // Pairs (u, v) with u < v, the tree first so the graph is connected
+        long edgeCount = Math.min((long) vertices * degree / 2,
+                (long) vertices * (vertices - 1) / 2);
+        Set<Long> pairs = new HashSet<>();
+        for (int v = 1; v < vertices; v++) {
+            pairs.add(pair(rand.nextInt(v), v));
+        }
+        while (pairs.size() < edgeCount) {
+            int u = rand.nextInt(vertices);
+            int v = rand.nextInt(vertices);
+            if (u != v) {
+                pairs.add(pair(Math.min(u, v), Math.max(u, v)));
+            }
+        }
+
+        // Distinct weights 1..|E| handed out in random order
+        List<Integer> weights = new ArrayList<>(pairs.size());
+        for (int w = 1; w <= pairs.size(); w++) {
+            weights.add(w);
+        }
+        Collections.shuffle(weights, rand);
+
+        Set<Object> edges = new HashSet<>();
+        Integer[][] matrix = new Integer[vertices][vertices];
+        int next = 0;
+        for (long key : pairs) {
+            int u = (int) (key >>> 32);
+            int v = (int) key;
+            int w = weights.get(next++);
+            Object a = vertexList.get(u);
+            Object b = vertexList.get(v);
+            edges.add((Object) Targets.NEW_EDGE.invokeExact(a, b, w));
+            edges.add((Object) Targets.NEW_EDGE.invokeExact(b, a, w));
+            matrix[u][v] = w;
+            matrix[v][u] = w;
+        }
+        Set<Object> vertexSet = new HashSet<>(vertexList);
+        adjList = (Object) Targets.NEW_ADJ_LIST.invokeExact(
+                (Set) vertexSet, (Set) edges);
+        adjMatrix = (Object) Targets.NEW_ADJ_MATRIX.invokeExact(
+                (Set) vertexSet, matrix);
+        csr = (Object) Targets.CSR_FROM_ADJ_LIST.invokeExact(adjList);
+    }
+
+    /**
+     * Packs an unordered vertex pair into one key.
+     *
+     * @param u the smaller vertex id
+     * @param v the larger vertex id
+     * @return the key
+     */
+    private static long pair(int u, int v) {
+        return ((long) u << 32) | v;
+    }
+
+    /**
+     * Runs a depth first search over the adjacency matrix.
+     *
+     * @return the visit order
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public List depthFirstSearch() throws Throwable {
+        List<Object> dfsList = new ArrayList<>();
+        boolean connected = (boolean) Targets.DEPTH_FIRST_SEARCH
+                .invokeExact(start, adjMatrix, (List) dfsList);
+        return dfsList;
+    }
+
+    /**
+     * Computes single source shortest paths with Dijkstra's algorithm.
+     *
+     * @return the distance map
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public Map shortPathDijk() throws Throwable {
+        return (Map) Targets.SHORT_PATH_DIJK.invokeExact(start, adjList);
+    }
+
+    /**
+     * Builds a minimum spanning tree with Prim's algorithm.
+     *
+     * @return the tree edges
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public Set mstPrim() throws Throwable {
+        return (Set) Targets.MST_PRIM.invokeExact(adjList);
+    }
+
+    /**
+     * Builds a minimum spanning tree with Kruskal's algorithm.
+     *
+     * @return the tree edges
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public Set mstKruskal() throws Throwable {
+        return (Set) Targets.MST_KRUSKAL.invokeExact(adjList);
+    }
+
+    /**
+     * Runs a depth first search over the CSR graph.
+     *
+     * @return the visit order
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public List csrDepthFirstSearch() throws Throwable {
+        List<Object> dfsList = new ArrayList<>();
+        boolean connected = (boolean) Targets.CSR_DEPTH_FIRST_SEARCH
+                .invokeExact(start, csr, (List) dfsList);
+        return dfsList;
+    }
+
+    /**
+     * Computes single source shortest paths over the CSR graph.
+     *
+     * @return the distances by vertex id
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public int[] csrShortPathDijk() throws Throwable {
+        return (int[]) Targets.CSR_SHORT_PATH_DIJK.invokeExact(0, csr);
+    }
+
+    /**
+     * Builds a minimum spanning tree over the CSR graph with Prim's
+     * algorithm.
+     *
+     * @return the tree edges
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public Set csrMstPrim() throws Throwable {
+        return (Set) Targets.CSR_MST_PRIM.invokeExact(csr);
+    }
+
+    /**
+     * Builds a minimum spanning tree over the CSR graph with Kruskal's
+     * algorithm.
+     *
+     * @return the tree edges
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public Set csrMstKruskal() throws Throwable {
+        return (Set) Targets.CSR_MST_KRUSKAL.invokeExact(csr);
+    }
+}
@@ -0,0 +1,105 @@
+package benchmarks;
+
+import java.util.Random;
+
+/**
+ * Input generators shared by the benchmarks. Every generator is seeded, so
+ * runs across releases measure identical data.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+public final class Inputs {
+
+    /**
+     * Seed for all generated inputs.
+     */
+    static final long SEED = 1332;
+
+    /**
+     * Shapes of numeric input arrays.
+     */
+    public enum Shape {
+        /** Uniformly random values. */
+        RANDOM,
+        /** Already in ascending order. */
+        SORTED,
+        /** In descending order. */
+        REVERSE,
+        /** Random values drawn from only 16 distinct keys. */
+        DUPLICATES,
+        /** Ascending then descending (organ pipe), which defeats
+         *  first/middle/last pivot sampling and run detection. */
+        ADVERSARIAL
+    }
+
+    /**
+     * Prevents instantiation, all members are static.
+     */
+    private Inputs() {
+    }
+
+    /**
+     * Generates an int array of the given shape.
+     *
+     * @param shape the shape of the data
+     * @param n the length of the array
+     * @return the generated array
+     */
+    static int[] ints(Shape shape, int n) {
+        Random rand = new Random(SEED);
+        int[] arr = new int[n];
+        for (int i = 0; i < n; i++) {
+            switch (shape) {
+            case SORTED:
+                arr[i] = i;
+                break;
+            case REVERSE:
+                arr[i] = n - i;
+                break;
+            case DUPLICATES:
+                arr[i] = rand.nextInt(16);
+                break;
+            case ADVERSARIAL:
+                arr[i] = i < n / 2 ? i : n - i;
+                break;
+            default:
+                arr[i] = rand.nextInt();
+                break;
+            }
+        }
+        return arr;
+    }
+
+    /**
+     * Generates a boxed Integer array of the given shape.
+     *
+     * @param shape the shape of the data
+     * @param n the length of the array
+     * @return the generated array
+     */
+    static Integer[] integers(Shape shape, int n) {
+        int[] values = ints(shape, n);
+        Integer[] arr = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            arr[i] = values[i];
+        }
+        return arr;
+    }
+
+    /**
+     * Generates random text over the first alphabetSize lowercase letters.
+     *
+     * @param n the length of the text
+     * @param alphabetSize the number of distinct characters, 1 to 26
+     * @return the generated text
+     */
+    static String text(int n, int alphabetSize) {
+        Random rand = new Random(SEED);
+        char[] chars = new char[n];
+        for (int i = 0; i < n; i++) {
+            chars[i] = (char) ('a' + rand.nextInt(alphabetSize));
+        }
+        return new String(chars);
+    }
+}
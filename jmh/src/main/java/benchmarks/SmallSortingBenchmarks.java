@@ -0,0 +1,203 @@
+package benchmarks;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the sorts and selection in Sorting on small arrays, where
+ * a call takes microseconds or less and a Level.Invocation setup would
+ * cost as much as the call itself.
+ *
+ * Instead, each iteration is one batch of {@link #BATCH} calls, timed as a
+ * whole. Each input type has its own state, which holds BATCH working
+ * copies allocated once per trial and restores all of them with
+ * System.arraycopy before every iteration; every call then takes the next
+ * unsorted copy. The setup allocates nothing, so -prof gc reports only
+ * what the algorithm allocates.
+ *
+ * Scores and gc.alloc.rate.norm are per batch, so divide them by BATCH to
+ * get the cost of one call.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 100, batchSize = SmallSortingBenchmarks.BATCH)
+@Measurement(iterations = 50, batchSize = SmallSortingBenchmarks.BATCH)
+@Fork(1)
+public class SmallSortingBenchmarks {
+
+    /**
+     * Number of calls per iteration, and of working copies per state.
+     */
+    static final int BATCH = 1000;
+
+    private static final Comparator<Integer> COMPARATOR = Integer::compare;
+
+    /**
+     * Boxed input, and the Random used by quickselect.
+     */
+    @State(Scope.Thread)
+    public static class Boxed {
+
+        @Param({"16", "64", "1000"})
+        public int size;
+
+        @Param({"RANDOM", "SORTED", "REVERSE", "DUPLICATES", "ADVERSARIAL"})
+        public Inputs.Shape shape;
+
+        private Integer[] original;
+        private Integer[][] copies;
+        private int next;
+        private Random rand;
+
+        /**
+         * Generates the input and allocates the working copies once per
+         * trial.
+         */
+        @Setup(Level.Trial)
+        public void generate() {
+            original = Inputs.integers(shape, size);
+            copies = new Integer[BATCH][size];
+            rand = new Random(Inputs.SEED);
+        }
+
+        /**
+         * Restores every working copy and the seed before each batch.
+         */
+        @Setup(Level.Iteration)
+        public void restore() {
+            for (Integer[] copy : copies) {
+                System.arraycopy(original, 0, copy, 0, size);
+            }
+            next = 0;
+            rand.setSeed(Inputs.SEED);
+        }
+
+        /**
+         * Takes the next unsorted copy.
+         *
+         * @return an array holding the unsorted input
+         */
+        Integer[] next() {
+            return copies[next++];
+        }
+    }
+
+    /**
+     * Primitive int input.
+     */
+    @State(Scope.Thread)
+    public static class Ints {
+
+        @Param({"16", "64", "1000"})
+        public int size;
+
+        @Param({"RANDOM", "SORTED", "REVERSE", "DUPLICATES", "ADVERSARIAL"})
+        public Inputs.Shape shape;
+
+        private int[] original;
+        private int[][] copies;
+        private int next;
+
+        /**
+         * Generates the input and allocates the working copies once per
+         * trial.
+         */
+        @Setup(Level.Trial)
+        public void generate() {
+            original = Inputs.ints(shape, size);
+            copies = new int[BATCH][size];
+        }
+
+        /**
+         * Restores every working copy before each batch.
+         */
+        @Setup(Level.Iteration)
+        public void restore() {
+            for (int[] copy : copies) {
+                System.arraycopy(original, 0, copy, 0, size);
+            }
+            next = 0;
+        }
+
+        /**
+         * Takes the next unsorted copy.
+         *
+         * @return an array holding the unsorted input
+         */
+        int[] next() {
+            return copies[next++];
+        }
+    }
+
+    /**
+     * Sorts with insertion sort.
+     *
+     * @param in the input
+     * @return the sorted array
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public Object[] insertionSort(Boxed in) throws Throwable {
+        Integer[] arr = in.next();
+        Targets.INSERTION_SORT.invokeExact((Object[]) arr,
+                (Comparator) COMPARATOR);
+        return arr;
+    }
+
+    /**
+     * Sorts with merge sort.
+     *
+     * @param in the input
+     * @return the sorted array
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public Object[] mergeSort(Boxed in) throws Throwable {
+        Integer[] arr = in.next();
+        Targets.MERGE_SORT.invokeExact((Object[]) arr,
+                (Comparator) COMPARATOR);
+        return arr;
+    }
+
+    /**
+     * Selects the median with quickselect.
+     *
+     * @param in the input
+     * @return the median
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public Object kthSelect(Boxed in) throws Throwable {
+        return (Object) Targets.KTH_SELECT.invokeExact(in.size / 2 + 1,
+                (Object[]) in.next(), (Comparator) COMPARATOR, in.rand);
+    }
+
+    /**
+     * Sorts primitive ints with LSD radix sort.
+     *
+     * @param in the input
+     * @return the sorted array
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public int[] lsdRadixSort(Ints in) throws Throwable {
+        return (int[]) Targets.LSD_RADIX_SORT.invokeExact(in.next());
+    }
+}
@@ -0,0 +1,152 @@
+package benchmarks;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the comparison sorts, selection and radix sort in Sorting
+ * on large arrays. Small arrays are in {@link SmallSortingBenchmarks}.
+ *
+ * The sorts work in place, so the unsorted input is copied back before
+ * every call. Each input type has its own state, which copies with
+ * System.arraycopy into an array allocated once per trial, so the setup
+ * allocates nothing and -prof gc reports only what the algorithm allocates.
+ * A call takes a millisecond or more at these sizes, long enough for a
+ * Level.Invocation setup to stay out of the measured time.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortingBenchmarks {
+
+    private static final Comparator<Integer> COMPARATOR = Integer::compare;
+
+    /**
+     * Boxed input, and the Random used by quickselect.
+     */
+    @State(Scope.Thread)
+    public static class Boxed {
+
+        @Param({"100000", "1000000"})
+        public int size;
+
+        @Param({"RANDOM", "SORTED", "REVERSE", "DUPLICATES", "ADVERSARIAL"})
+        public Inputs.Shape shape;
+
+        private Integer[] original;
+        private Integer[] arr;
+        private Random rand;
+
+        /**
+         * Generates the input and allocates the working copy once per
+         * trial.
+         */
+        @Setup(Level.Trial)
+        public void generate() {
+            original = Inputs.integers(shape, size);
+            arr = new Integer[size];
+            rand = new Random(Inputs.SEED);
+        }
+
+        /**
+         * Restores the unsorted input and the seed before every call.
+         */
+        @Setup(Level.Invocation)
+        public void restore() {
+            System.arraycopy(original, 0, arr, 0, size);
+            rand.setSeed(Inputs.SEED);
+        }
+    }
+
+    /**
+     * Primitive int input.
+     */
+    @State(Scope.Thread)
+    public static class Ints {
+
+        @Param({"100000", "1000000"})
+        public int size;
+
+        @Param({"RANDOM", "SORTED", "REVERSE", "DUPLICATES", "ADVERSARIAL"})
+        public Inputs.Shape shape;
+
+        private int[] original;
+        private int[] arr;
+
+        /**
+         * Generates the input and allocates the working copy once per
+         * trial.
+         */
+        @Setup(Level.Trial)
+        public void generate() {
+            original = Inputs.ints(shape, size);
+            arr = new int[size];
+        }
+
+        /**
+         * Restores the unsorted input before every call.
+         */
+        @Setup(Level.Invocation)
+        public void restore() {
+            System.arraycopy(original, 0, arr, 0, size);
+        }
+    }
+
+    /**
+     * Sorts with merge sort.
+     *
+     * @param in the input
+     * @return the sorted array
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public Object[] mergeSort(Boxed in) throws Throwable {
+        Targets.MERGE_SORT.invokeExact((Object[]) in.arr,
+                (Comparator) COMPARATOR);
+        return in.arr;
+    }
+
+    /**
+     * Selects the median with quickselect.
+     *
+     * @param in the input
+     * @return the median
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public Object kthSelect(Boxed in) throws Throwable {
+        return (Object) Targets.KTH_SELECT.invokeExact(in.size / 2 + 1,
+                (Object[]) in.arr, (Comparator) COMPARATOR, in.rand);
+    }
+
+    /**
+     * Sorts primitive ints with LSD radix sort.
+     *
+     * @param in the input
+     * @return the sorted array
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public int[] lsdRadixSort(Ints in) throws Throwable {
+        return (int[]) Targets.LSD_RADIX_SORT.invokeExact(in.arr);
+    }
+}
@@ -0,0 +1,134 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the single pattern searches in StringSearching.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StringSearchingBenchmarks {
+
+    /**
+     * Kinds of text and pattern pairs.
+     */
+    public enum Shape {
+        /** Random lowercase text, pattern taken from the middle of it. */
+        RANDOM,
+        /** Random text over a four letter alphabet, like DNA, where partial
+         *  matches are frequent and skip distances are short. */
+        SMALL_ALPHABET,
+        /** Pattern a...ab in a text of only a, the worst case for searches
+         *  that compare from the left or rely on the bad character rule. */
+        ADVERSARIAL,
+        /** Pattern that occurs nowhere in random text. */
+        ABSENT
+    }
+
+    @Param({"10000", "1000000"})
+    public int textLength;
+
+    @Param({"4", "64"})
+    public int patternLength;
+
+    @Param({"RANDOM", "SMALL_ALPHABET", "ADVERSARIAL", "ABSENT"})
+    public Shape shape;
+
+    private String text;
+    private String pattern;
+
+    /**
+     * Generates the text and pattern once per trial.
+     */
+    @Setup
+    public void generate() {
+        int middle = textLength / 2;
+        switch (shape) {
+        case SMALL_ALPHABET:
+            text = Inputs.text(textLength, 4);
+            pattern = text.substring(middle, middle + patternLength);
+            break;
+        case ADVERSARIAL:
+            text = "a".repeat(textLength);
+            pattern = "a".repeat(patternLength - 1) + "b";
+            break;
+        case ABSENT:
+            text = Inputs.text(textLength, 25);
+            pattern = "z".repeat(patternLength);
+            break;
+        default:
+            text = Inputs.text(textLength, 26);
+            pattern = text.substring(middle, middle + patternLength);
+            break;
+        }
+    }
+
+    /**
+     * Searches with Knuth-Morris-Pratt.
+     *
+     * @return the match indices
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public List kmp() throws Throwable {
+        return (List) Targets.KMP.invokeExact((CharSequence) pattern,
+                (CharSequence) text);
+    }
+
+    /**
+     * Searches with Boyer-Moore.
+     *
+     * @return the match indices
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public List boyerMoore() throws Throwable {
+        return (List) Targets.BOYER_MOORE.invokeExact((CharSequence) pattern,
+                (CharSequence) text);
+    }
+
+    /**
+     * Searches with Rabin-Karp.
+     *
+     * @return the match indices
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public List rabinKarp() throws Throwable {
+        return (List) Targets.RABIN_KARP.invokeExact((CharSequence) pattern,
+                (CharSequence) text);
+    }
+
+    /**
+     * Searches with the algorithm StringSearching.search selects, to check
+     * its thresholds against the fixed algorithms above.
+     *
+     * @return the match indices
+     * @throws Throwable never, the target method throws no checked exceptions
+     */
+    @Benchmark
+    public List search() throws Throwable {
+        return (List) Targets.SEARCH.invokeExact((CharSequence) pattern,
+                (CharSequence) text);
+    }
+}
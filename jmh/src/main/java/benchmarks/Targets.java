@@ -0,0 +1,160 @@
+package benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Method handles for the algorithms under test.
+ *
+ * The algorithms are in the default package, which cannot be imported from
+ * a named package, and JMH refuses to generate benchmarks for classes in the
+ * default package. The benchmarks therefore reach the algorithms through
+ * static final MethodHandles, which the JIT treats as constants and inlines
+ * through, so calling them with invokeExact costs the same as a direct call.
+ *
+ * @author Nick Liccini
+ * @version 1.0
+ */
+final class Targets {
+
+    static final MethodHandle INSERTION_SORT = method("Sorting",
+            "insertionSort", void.class, Object[].class, Comparator.class);
+    static final MethodHandle MERGE_SORT = method("Sorting", "mergeSort",
+            void.class, Object[].class, Comparator.class);
+    static final MethodHandle KTH_SELECT = method("Sorting", "kthSelect",
+            Object.class, int.class, Object[].class, Comparator.class,
+            Random.class);
+    static final MethodHandle LSD_RADIX_SORT = method("Sorting",
+            "lsdRadixSort", int[].class, int[].class);
+
+    static final MethodHandle KMP = method("StringSearching", "kmp",
+            List.class, CharSequence.class, CharSequence.class);
+    static final MethodHandle BOYER_MOORE = method("StringSearching",
+            "boyerMoore", List.class, CharSequence.class, CharSequence.class);
+    static final MethodHandle RABIN_KARP = method("StringSearching",
+            "rabinKarp", List.class, CharSequence.class, CharSequence.class);
+    static final MethodHandle SEARCH = method("StringSearching", "search",
+            List.class, CharSequence.class, CharSequence.class);
+
+    static final MethodHandle DEPTH_FIRST_SEARCH = method("GraphAlgs",
+            "depthFirstSearch", boolean.class, type("Vertex"),
+            type("GraphAdjMatrix"), List.class);
+    static final MethodHandle SHORT_PATH_DIJK = method("GraphAlgs",
+            "shortPathDijk", Map.class, type("Vertex"), type("GraphAdjList"));
+    static final MethodHandle MST_PRIM = method("GraphAlgs", "mstPrim",
+            Set.class, type("GraphAdjList"));
+    static final MethodHandle MST_KRUSKAL = method("GraphAlgs", "mstKruskal",
+            Set.class, type("GraphAdjList"));
+
+    static final MethodHandle CSR_FROM_ADJ_LIST = method("CsrGraph",
+            "fromAdjList", type("CsrGraph"), type("GraphAdjList"));
+    static final MethodHandle CSR_DEPTH_FIRST_SEARCH = method("GraphAlgs",
+            "depthFirstSearch", boolean.class, type("Vertex"),
+            type("CsrGraph"), List.class);
+    static final MethodHandle CSR_SHORT_PATH_DIJK = method("GraphAlgs",
+            "shortPathDijk", int[].class, int.class, type("CsrGraph"));
+    static final MethodHandle CSR_MST_PRIM = method("GraphAlgs", "mstPrim",
+            Set.class, type("CsrGraph"));
+    static final MethodHandle CSR_MST_KRUSKAL = method("GraphAlgs",
+            "mstKruskal", Set.class, type("CsrGraph"));
+
+    static final MethodHandle NEW_VERTEX = constructor("Vertex",
+            Object.class, int.class);
+    static final MethodHandle NEW_EDGE = constructor("Edge", type("Vertex"),
+            type("Vertex"), int.class);
+    static final MethodHandle NEW_ADJ_LIST = constructor("GraphAdjList",
+            Set.class, Set.class);
+    static final MethodHandle NEW_ADJ_MATRIX = constructor("GraphAdjMatrix",
+            Set.class, Integer[][].class);
+
+    /**
+     * Prevents instantiation, all members are static.
+     */
+    private Targets() {
+    }
+
+    /**
+     * Loads a class from the default package.
+     *
+     * @param name the simple class name
+     * @return the class
+     */
+    static Class<?> type(String name) {
+        try {
+            return Class.forName(name);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Missing class " + name, e);
+        }
+    }
+
+    /**
+     * Widens every default package type in a method type to Object, since
+     * the benchmarks cannot name those types in invokeExact call sites.
+     *
+     * @param type the exact method type
+     * @return the method type callers use
+     */
+    private static MethodType callable(MethodType type) {
+        for (int i = 0; i < type.parameterCount(); i++) {
+            if (type.parameterType(i).getPackageName().isEmpty()) {
+                type = type.changeParameterType(i, Object.class);
+            }
+        }
+        if (!type.returnType().isPrimitive()
+                && type.returnType().getPackageName().isEmpty()) {
+            type = type.changeReturnType(Object.class);
+        }
+        return type;
+    }
+
+    /**
+     * Finds a public static method of a default package class. Parameters
+     * and return types of default package types are widened to Object.
+     *
+     * @param owner the simple name of the declaring class
+     * @param name the method name
+     * @param returnType the erased return type
+     * @param params the erased parameter types
+     * @return a handle to the method
+     */
+    private static MethodHandle method(String owner, String name,
+                                       Class<?> returnType,
+                                       Class<?>... params) {
+        try {
+            MethodType type = MethodType.methodType(returnType, params);
+            return MethodHandles.publicLookup().findStatic(type(owner), name,
+                    type).asType(callable(type));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing method " + owner + "."
+                    + name, e);
+        }
+    }
+
+    /**
+     * Finds a public constructor of a default package class. The handle's
+     * return type and parameters of default package types are widened to
+     * Object.
+     *
+     * @param owner the simple name of the class
+     * @param params the erased parameter types
+     * @return a handle to the constructor
+     */
+    private static MethodHandle constructor(String owner,
+                                            Class<?>... params) {
+        try {
+            return MethodHandles.publicLookup().findConstructor(type(owner),
+                    MethodType.methodType(void.class, params))
+                    .asType(callable(MethodType.methodType(Object.class,
+                            params)));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Missing constructor of "
+                    + owner, e);
+        }
+    }
+}